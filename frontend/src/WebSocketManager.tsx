@@ -2,7 +2,7 @@ import React, {useCallback, useEffect, useRef } from 'react';
 import { useSelector, useDispatch } from 'react-redux';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import store, {clearAuth, RootState, setExpiresIn, setToken, setTotalUnreadCount, updateLobby} from "./store";
+import store, {applyLobbyEvent, clearAuth, RootState, setExpiresIn, setRoomUnread, setToken, setTotalUnreadCount, updateLobby} from "./store";
 import apiClient from "./api/axiosInstance";
 // 나중에 만들 Redux action들을 임포트한다고 가정
 // import { updateLobby, updateUnreadCount } from './store';
@@ -98,7 +98,18 @@ function WebSocketManager() {
                 //1. 로비 대상자
                 client.subscribe('/sub/chat/lobby', (message) => {
                     console.log('로비 업데이트 수신:', message.body);
-                    dispatch(updateLobby());
+                    let event: any = null;
+                    try {
+                        event = JSON.parse(message.body);
+                    } catch (e) {
+                        // 예전 형식("update" 문자열)
+                    }
+                    if (event && typeof event.version === 'number') {
+                        // 변경분만 목록에 반영 (버전이 비면 store에서 전체 재조회)
+                        dispatch(applyLobbyEvent(event));
+                    } else {
+                        dispatch(updateLobby());
+                    }
                 });
 
                 //2. 각 개인 유저 대상
@@ -109,6 +120,9 @@ function WebSocketManager() {
                     if (notification.type === 'TOTAL_UNREAD_COUNT_UPDATE') {
                         // Redux 스토어의 총 안 읽은 메시지 개수를 즉시 업데이트
                         dispatch(setTotalUnreadCount(notification.totalUnreadCount));
+                        if (notification.unreadByRoom) {
+                            dispatch(setRoomUnread(notification.unreadByRoom));
+                        }
                     }
 
                     // 강퇴 메시지 처리 등 다른 알림 처리...
@@ -4,7 +4,7 @@ import React, {useEffect, useMemo, useState} from "react";
 import FullCalendar from "@fullcalendar/react";
 import dayGridPlugin from "@fullcalendar/daygrid";
 import interactionPlugin, {DateClickArg} from "@fullcalendar/interaction";
-import axios from "axios";
+import apiClient from "../api/axiosInstance";
 import "./calender.css"
 import {useNavigate} from "react-router-dom";
 import {IoCalendarOutline, IoLocationOutline} from "react-icons/io5";
@@ -42,14 +42,12 @@ const CalendarPage = () => {
     // 외부 API 데이터 가져오기
     useEffect(() => {
         const fetchFestivals = async () => {
-            const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-            const API_URL =
-                `https://apis.data.go.kr/B551011/KorService2/searchFestival2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
+            const API_URL = '/tour/searchFestival2'; // TourAPI 는 서버(캐시)를 거쳐 호출합니다.
             const today = new Date();
             const eventStartDate = `${today.getFullYear()}${String(today.getMonth() + 1).padStart(2, '0')}${String(today.getDate()).padStart(2, '0')}`;
 
             try {
-                const response = await axios.get(API_URL, {
+                const response = await apiClient.get(API_URL, {
                     params: { // 요청 파라미터
                         numOfRows: 150,
                         pageNo: 1,
@@ -11,7 +11,6 @@ import {
     IoShareSocialOutline, IoHeartOutline, IoHeart, IoBusOutline, IoTrainOutline,
 } from "react-icons/io5";
 import React, {useEffect, useState} from "react";
-import axios from "axios";
 import {useNavigate, useParams} from "react-router-dom"; // ✨ useNavigate 임포트 확인
 import {Swiper, SwiperSlide} from "swiper/react";
 import {Navigation, Pagination} from "swiper/modules";
@@ -80,7 +79,6 @@ interface FoodSearchList {
 }
 
 const DetailPage = () => {
-    const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
     const {festivalId} = useParams<{ festivalId: string }>();
     const [festival, setFestival] = useState<FestivalDetail | null>(null);
     const [images, setImages] = useState<ImageItem[]>([]);
@@ -104,10 +102,9 @@ const DetailPage = () => {
     useEffect(() => {
         if (festivalId) {
             const fetchDetail = async () => {
-                const API_URL =
-                    `https://apis.data.go.kr/B551011/KorService2/detailCommon2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
+                const API_URL = '/tour/detailCommon2'; // TourAPI 는 서버(캐시)를 거쳐 호출합니다.
                 try {
-                    const response = await axios.get(API_URL, {
+                    const response = await apiClient.get(API_URL, {
                         params: {
                             numOfRows: 50,
                             pageNo: 1,
@@ -151,13 +148,11 @@ const DetailPage = () => {
     useEffect(() => {
         if (festivalId) {
             const fetchInformation = async () => {
-                const IMAGES_URL =
-                    `https://apis.data.go.kr/B551011/KorService2/detailImage2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
-                const Information_URL =
-                    `https://apis.data.go.kr/B551011/KorService2/detailIntro2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
+                const IMAGES_URL = '/tour/detailImage2';
+                const Information_URL = '/tour/detailIntro2';
                 try {
                     const [imagesResponse, informationResponse] = await Promise.all([
-                        axios.get(IMAGES_URL, {
+                        apiClient.get(IMAGES_URL, {
                             params: {
                                 numOfRows: 50,
                                 pageNo: 1,
@@ -165,7 +160,7 @@ const DetailPage = () => {
                                 imageYN: 'Y',
                             }
                         }),
-                        axios.get(Information_URL, {
+                        apiClient.get(Information_URL, {
                             params: {
                                 numOfRows: 50,
                                 pageNo: 1,
@@ -194,9 +189,9 @@ const DetailPage = () => {
         if (!festival || !festival.mapx || !festival.mapy) return;
 
         const fetchFoodList = async () => {
-            const API_URL = `https://apis.data.go.kr/B551011/KorService2/locationBasedList2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
+            const API_URL = '/tour/locationBasedList2';
             try {
-                const response = await axios.get(API_URL, {
+                const response = await apiClient.get(API_URL, {
                     params: {
                         mapX: festival.mapx, // 축제 장소의 X좌표
                         mapY: festival.mapy, // 축제 장소의 Y좌표
@@ -6,7 +6,6 @@ import {RootState, setTotalUnreadCount, updateLobby} from '../store';
 import { BsChatDots } from "react-icons/bs";
 import apiClient from "../api/axiosInstance";
 import Modal from "../components/Modal";
-import axios from "axios";
 
     interface Location {
     contentid: string;
@@ -62,10 +61,8 @@ const CommunityPage = () => {
                 try {
                     // <<< 수정된 부분: 날짜 형식을 YYYY-MM-DD에서 YYYYMMDD로 변경
                     const formattedDate = newRoomInfo.meetingDate.replace(/-/g, '');
-                    const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-                    const API_URL =
-                        `https://apis.data.go.kr/B551011/KorService2/searchFestival2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
-                    const response = await axios.get(API_URL, {
+                    const API_URL = '/tour/searchFestival2'; // TourAPI 는 서버(캐시)를 거쳐 호출합니다.
+                    const response = await apiClient.get(API_URL, {
                         params: { // 요청 파라미터
                             numOfRows: 150,
                             pageNo: 1,
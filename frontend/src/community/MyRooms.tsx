@@ -1,10 +1,11 @@
 // src/community/MyRooms.tsx
 
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import { useOutletContext } from 'react-router-dom';
-import { useSelector } from 'react-redux';
-import { RootState } from '../store';
+import { useDispatch, useSelector } from 'react-redux';
+import { RootState, setLobbyVersion } from '../store';
 import { Room } from './CommunityPage';
+import { applyLobbyEvents, applyRoomUnread } from './lobbyEvents';
 import apiClient from "../api/axiosInstance";
 import { IoSearch, IoArrowUpOutline, IoArrowDownOutline, IoPeopleOutline, IoCalendarOutline, IoChatbubblesOutline, IoChatbubbleOutline } from 'react-icons/io5';
 
@@ -20,6 +21,10 @@ const MyRooms = () => {
     const userProfile = useSelector((state: RootState) => state.token.userProfile);
     const userName = userProfile?.username;
     const lobbyLastUpdated = useSelector((state: RootState) => state.token.lobbyLastUpdated);
+    const lobbyEvents = useSelector((state: RootState) => state.token.lobbyEvents);
+    const roomUnread = useSelector((state: RootState) => state.token.roomUnread);
+    const dispatch = useDispatch();
+    const appliedVersionRef = useRef<number>(0);
 
     const [rooms, setRooms] = useState<Room[]>([]);
     const [filteredRooms, setFilteredRooms] = useState<Room[]>([]);
@@ -39,17 +44,41 @@ const MyRooms = () => {
 
             const roomData = Array.isArray(roomsResponse.data) ? roomsResponse.data : [];
             setRooms(roomData);
+            // 이 목록이 반영하고 있는 로비 버전 (이후 변경분은 이 번호 다음부터 적용)
+            const lobbyVersion = Number(roomsResponse.headers['x-lobby-version']);
+            if (!Number.isNaN(lobbyVersion)) {
+                appliedVersionRef.current = lobbyVersion;
+                dispatch(setLobbyVersion(lobbyVersion));
+            }
             setMyRoomIds(myRoomsResponse.data.map(String));
 
         } catch (error) {
             console.error("채팅방 데이터를 불러오는 데 실패했습니다.", error);
         }
-    }, [userName]);
+    }, [userName, dispatch]);
 
     useEffect(() => {
         fetchData();
     }, [userName, lobbyLastUpdated, fetchData]);
 
+    // 로비 변경분(방 생성/삭제/참여자 수)을 목록에 바로 반영합니다.
+    useEffect(() => {
+        const pending = lobbyEvents.filter(event => event.version > appliedVersionRef.current);
+        if (pending.length === 0) return;
+        appliedVersionRef.current = pending[pending.length - 1].version;
+        setRooms(prev => applyLobbyEvents(prev, pending));
+        const createdByMe = pending.filter(event => event.type === 'ROOM_CREATED' && event.room?.creator === userName);
+        if (createdByMe.length > 0) {
+            setMyRoomIds(prev => [...prev, ...createdByMe.map(event => String(event.roomId))]);
+        }
+    }, [lobbyEvents, userName]);
+
+    useEffect(() => {
+        if (roomUnread) {
+            setRooms(prev => applyRoomUnread(prev, roomUnread));
+        }
+    }, [roomUnread]);
+
     useEffect(() => {
         let myRooms = rooms.filter(room => myRoomIds.includes(String(room.id)));
 
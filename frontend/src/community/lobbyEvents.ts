@@ -0,0 +1,32 @@
+import { LobbyEvent } from '../store';
+import { Room } from './CommunityPage';
+
+// 로비 변경분을 현재 방 목록에 반영합니다. (전체 목록을 다시 받지 않기 위함)
+export const applyLobbyEvents = (rooms: Room[], events: LobbyEvent[]): Room[] => {
+    return events.reduce<Room[]>((current, event) => {
+        const roomId = String(event.roomId);
+        switch (event.type) {
+            case 'ROOM_CREATED':
+                if (!event.room || current.some(room => String(room.id) === roomId)) {
+                    return current;
+                }
+                return [...current, event.room as Room];
+            case 'ROOM_DELETED':
+                return current.filter(room => String(room.id) !== roomId);
+            case 'ROOM_CHANGED':
+                return current.map(room => {
+                    if (String(room.id) !== roomId || event.participantCount === undefined) {
+                        return room;
+                    }
+                    return { ...room, participantCount: event.participantCount };
+                });
+            default:
+                return current;
+        }
+    }, rooms);
+};
+
+// 개인 채널로 받은 방별 안 읽은 수를 목록에 반영합니다.
+export const applyRoomUnread = (rooms: Room[], roomUnread: Record<string, number>): Room[] => {
+    return rooms.map(room => ({ ...room, unreadCount: roomUnread[String(room.id)] ?? 0 }));
+};
@@ -1,5 +1,6 @@
 import React, {useState, useEffect} from 'react';
 import axios from "axios";
+import apiClient from "../api/axiosInstance";
 import styles from "./HomePage.module.css";
 import NavigationBar from "../navigation/NavigationBar";
 
@@ -34,20 +35,12 @@ const HomePage = () => {
             const day = ('0' + today.getDate()).slice(-2); // 두 자리로 포맷팅
             const todayString = `${year}${month}${day}`;
 
-            // 팀원이 주신 URL 인코딩된 키를 먼저 디코딩합니다.
-            // axios의 params가 자동으로 URL 인코딩을 처리하므로, 여기서는 순수한 키를 사용합니다.
-            const ENCODED_SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-            const DECODED_SERVICE_KEY = decodeURIComponent(ENCODED_SERVICE_KEY); // 키 디코딩
-
-            const API_ENDPOINT = `https://apis.data.go.kr/B551011/KorService2/searchFestival2`;
+            // TourAPI 는 서버(캐시)를 거쳐 호출합니다. 서비스키 등 공통 파라미터는 서버가 붙입니다.
+            const API_ENDPOINT = '/tour/searchFestival2';
 
             try {
-                const response = await axios.get(API_ENDPOINT, {
+                const response = await apiClient.get(API_ENDPOINT, {
                     params: {
-                        serviceKey: DECODED_SERVICE_KEY, // 디코딩된 키 사용
-                        MobileApp: 'AppTest',
-                        MobileOS: 'ETC',
-                        _type: 'json',
                         numOfRows: 50, // 충분한 이미지 확보를 위해 넉넉하게 요청
                         pageNo: 1,
                         arrange: "A", // 조회순
@@ -2,45 +2,33 @@ import React, {useState, useEffect, useCallback, useRef} from 'react';
 import apiClient from '../api/axiosInstance';
 import {useNavigate, Link} from 'react-router-dom';
 import styles from './Review.module.css';
-import {Swiper, SwiperSlide} from 'swiper/react';
-import 'swiper/css';
-import 'swiper/css/navigation';
-import 'swiper/css/pagination';
-import './swiper-custom.css';
-import {Navigation, Pagination} from 'swiper/modules';
 import {useSelector} from "react-redux";
 import {RootState} from "../store";
 
-interface Photo {
-    photoId: number;
-    photoUrl: string;
-}
-
+// 백엔드의 ReviewSummaryDto와 일치하는 인터페이스 (목록에서는 본문 앞부분과 첫 사진만 옵니다)
 interface Review {
     reviewId: string;
     username: string;
     contentId: string;
     contentTitle: string;
     title: string;
-    content: string;
+    excerpt: string;
     rating: number;
-    visitDate?: string;
-    photos?: Photo[];
-    caption?: string;
+    thumbnailUrl?: string;
     createdAt: string;
-    updatedAt: string;
 }
 
-// 백엔드의 ReviewListResponseDto와 일치하는 인터페이스
+// 백엔드의 ReviewFeedResponseDto와 일치하는 인터페이스
 interface GetReviewsResponse {
     reviews: Review[];
+    nextCursor: string | null;
 }
 
 function ReviewPage() {
     const navigate = useNavigate();
     const [reviews, setReviews] = useState<Review[]>([]);
     const [loading, setLoading] = useState<boolean>(false);
-    const [page, setPage] = useState<number>(0); // 현재 페이지 번호
+    const [cursor, setCursor] = useState<string | null>(null); // 다음 요청에 넘길 커서 (첫 요청은 null)
     const [hasMore, setHasMore] = useState<boolean>(true); // 더 불러올 데이터가 있는지 여부
     const loader = useRef<HTMLDivElement | null>(null); // Intersection Observer를 위한 ref
 
@@ -48,20 +36,22 @@ function ReviewPage() {
         if (loading || !hasMore) return; // 이미 로딩 중이거나 더 이상 데이터가 없으면 실행하지 않음
         setLoading(true);
         try {
-            // 페이지 번호를 사용하여 데이터 요청
-            const response = await apiClient.get<GetReviewsResponse>(`/reviews?page=${page}`);
+            // 마지막으로 받은 리뷰 다음부터 요청 (커서 기반)
+            const response = await apiClient.get<GetReviewsResponse>('/reviews', {
+                params: cursor ? {cursor} : {},
+            });
             const newReviews = response.data.reviews || [];
 
             setReviews(prevReviews => [...prevReviews, ...newReviews]); // 기존 리뷰에 새로운 리뷰 추가
-            setHasMore(newReviews.length === 20); // 백엔드에서 20개씩 보내주므로, 20개 미만이면 더 이상 데이터가 없음
-            setPage(prevPage => prevPage + 1); // 다음 페이지로 설정
+            setHasMore(!!response.data.nextCursor); // nextCursor 가 없으면 마지막 페이지
+            setCursor(response.data.nextCursor);
 
         } catch (error) {
             console.error('리뷰 가져오기 오류:', error);
         } finally {
             setLoading(false);
         }
-    }, [page, loading, hasMore]);
+    }, [cursor, loading, hasMore]);
 
     // Intersection Observer를 사용하여 스크롤 감지
     useEffect(() => {
@@ -116,22 +106,8 @@ function ReviewPage() {
                 <div className={styles.reviewList}>
                     {reviews.map(review => (
                         <div key={review.reviewId} className={styles.reviewItem}>
-                            {review.photos && review.photos.length > 0 ? (
-                                <Swiper
-                                    modules={[Navigation, Pagination]}
-                                    spaceBetween={50}
-                                    slidesPerView={1}
-                                    navigation
-                                    pagination={{clickable: true}}
-                                    className="review-swiper"
-                                >
-                                    {review.photos.map(photo => (
-                                        <SwiperSlide key={photo.photoId}>
-                                            <img src={photo.photoUrl} alt={review.caption || review.title}
-                                                 className={styles.reviewImage}/>
-                                        </SwiperSlide>
-                                    ))}
-                                </Swiper>
+                            {review.thumbnailUrl ? (
+                                <img src={review.thumbnailUrl} alt={review.title} className={styles.reviewImage}/>
                             ) : (
                                 <div className={styles.reviewImage} style={{
                                     backgroundColor: '#f0f0f0',
@@ -77,10 +77,8 @@ function ReviewUpdatePage() {
                 setLoading(true);
                 try {
                     const formattedDate = visitDate.replace(/-/g, '');
-                    const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-                    const API_URL =
-                        `https://apis.data.go.kr/B551011/KorService2/searchFestival2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
-                    const response = await axios.get(API_URL, {
+                    const API_URL = '/tour/searchFestival2'; // TourAPI 는 서버(캐시)를 거쳐 호출합니다.
+                    const response = await apiClient.get(API_URL, {
                         params: {
                             numOfRows: 150,
                             pageNo: 1,
@@ -1,5 +1,5 @@
 import React, {useEffect, useState} from "react";
-import axios from "axios";
+import apiClient from "../api/axiosInstance";
 import './search.css'
 import {Link} from "react-router-dom";
 import {IoCalendarOutline, IoLocationOutline} from "react-icons/io5";
@@ -66,13 +66,11 @@ const SearchPage = () => {
             setFilterFestivals([]);
             setSearchKeyword("");
 
-            const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-            const API_URL =
-                `https://apis.data.go.kr/B551011/KorService2/searchFestival2?serviceKey=${SERVICE_KEY}&MobileApp=AppTest&MobileOS=ETC&_type=json`;
+            const API_URL = '/tour/searchFestival2'; // TourAPI 는 서버(캐시)를 거쳐 호출합니다.
             const todayString = getTodayDateString(); // 오늘 날짜 (YYYYMMDD)
 
             try {
-                const response = await axios.get(API_URL, {
+                const response = await apiClient.get(API_URL, {
                     params: {
                         numOfRows: 50, // 50개만 가져오도록 설정
                         pageNo: 1,
@@ -2,6 +2,15 @@ import { combineReducers, configureStore, createSlice, PayloadAction } from '@re
 import storage from 'redux-persist/lib/storage';
 import { persistReducer, persistStore } from 'redux-persist';
 
+// 로비 변경분(/sub/chat/lobby). version 은 서버의 로비 버전입니다.
+export interface LobbyEvent {
+    type: 'ROOM_CREATED' | 'ROOM_DELETED' | 'ROOM_CHANGED';
+    version: number;
+    roomId: number;
+    room?: any;
+    participantCount?: number;
+}
+
 // 1. 상태(State)의 타입을 정의합니다.
 interface TokenState {
     token: string | null;
@@ -16,6 +25,9 @@ interface TokenState {
     } | null;
     totalUnreadCount: number;
     lobbyLastUpdated: number | null;
+    lobbyVersion: number | null; // 마지막으로 반영한 로비 버전
+    lobbyEvents: LobbyEvent[]; // 아직 목록에 반영할 로비 변경분 (최근 것만 유지)
+    roomUnread: Record<string, number> | null; // 방별 안 읽은 수
     expiresIn: number | null;
 }
 
@@ -25,6 +37,9 @@ const initState: TokenState = {
     userProfile: null,
     totalUnreadCount: 0,
     lobbyLastUpdated: null as number | null,
+    lobbyVersion: null,
+    lobbyEvents: [],
+    roomUnread: null,
     expiresIn: null
 };
 
@@ -58,10 +73,37 @@ const tokenSlice = createSlice({
             state.totalUnreadCount = 0;
             state.expiresIn = null;
             state.lobbyLastUpdated = null;
+            state.lobbyVersion = null;
+            state.lobbyEvents = [];
+            state.roomUnread = null;
         },
         updateLobby: (state) => {
             state.lobbyLastUpdated = Date.now();
         },
+        // 목록을 새로 받았을 때 그 목록의 로비 버전을 기록합니다.
+        setLobbyVersion: (state, action: PayloadAction<number>) => {
+            state.lobbyVersion = action.payload;
+            state.lobbyEvents = state.lobbyEvents.filter(event => event.version > action.payload);
+        },
+        // 로비 변경분을 쌓아두고, 중간 버전이 빠졌으면 목록을 다시 받도록 합니다.
+        applyLobbyEvent: (state, action: PayloadAction<LobbyEvent>) => {
+            const event = action.payload;
+            if (state.lobbyVersion === null) {
+                return;
+            }
+            if (event.version <= state.lobbyVersion) {
+                return; // 이미 목록에 반영된 변경분
+            }
+            if (event.version > state.lobbyVersion + 1) {
+                state.lobbyLastUpdated = Date.now(); // 빠진 버전이 있으므로 전체 재동기화
+                return;
+            }
+            state.lobbyVersion = event.version;
+            state.lobbyEvents = [...state.lobbyEvents, event].slice(-50);
+        },
+        setRoomUnread: (state, action: PayloadAction<Record<string, number>>) => {
+            state.roomUnread = action.payload;
+        },
     },
 });
 
@@ -90,6 +132,6 @@ export const persistor = persistStore(store);
 export type RootState = ReturnType<typeof store.getState>;
 export type AppDispatch = typeof store.dispatch;
 
-export const { setToken, setUserProfile, clearAuth, setTotalUnreadCount,updateLobby,setExpiresIn } = tokenSlice.actions;
+export const { setToken, setUserProfile, clearAuth, setTotalUnreadCount,updateLobby,setExpiresIn, setLobbyVersion, applyLobbyEvent, setRoomUnread } = tokenSlice.actions;
 
 export default store;
@@ -54,8 +54,6 @@ const LikedFestivalItem: React.FC<LikedFestivalItemProps> = ({ festival, onItemC
 };
 
 const LikedFestivalsPage: React.FC = () => {
-    // 한국관광공사 API 키
-    const SERVICE_KEY = "WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
     const navigate = useNavigate();
 
     // Redux store에서 사용자 정보 가져오기
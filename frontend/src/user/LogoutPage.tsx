@@ -3,6 +3,7 @@ import { useNavigate } from 'react-router-dom';
 import { useDispatch } from 'react-redux';
 import { clearAuth, AppDispatch } from '../store'; // ✨ clearAuth 임포트
 import styles from './User.module.css'; // User.module.css 임포트 (모달 스타일 재사용)
+import apiClient from '../api/axiosInstance';
 
 const LogoutPage = () => {
     const navigate = useNavigate();
@@ -18,14 +19,19 @@ const LogoutPage = () => {
     };
 
     useEffect(() => {
-        // ✨ clearAuth 액션을 디스패치하여 토큰과 프로필 정보를 모두 초기화
-        dispatch(clearAuth());
-        localStorage.removeItem('jwtToken'); // 로컬 스토리지에서도 제거
-        console.log('로컬 스토리지에서 JWT 토큰 제거됨.');
-        console.log('Redux Store에서 토큰 및 프로필 상태 초기화됨.');
-
-        setModalMessage('로그아웃 되었습니다.');
-        setShowModal(true);
+        // 토큰이 남아 있을 때 서버에 무효화를 요청하고, 성공/실패와 관계없이 로컬 로그아웃을 진행합니다.
+        apiClient.post('/logout')
+            .catch((error) => console.error('서버 로그아웃 요청 실패:', error))
+            .finally(() => {
+                // ✨ clearAuth 액션을 디스패치하여 토큰과 프로필 정보를 모두 초기화
+                dispatch(clearAuth());
+                localStorage.removeItem('jwtToken'); // 로컬 스토리지에서도 제거
+                console.log('로컬 스토리지에서 JWT 토큰 제거됨.');
+                console.log('Redux Store에서 토큰 및 프로필 상태 초기화됨.');
+
+                setModalMessage('로그아웃 되었습니다.');
+                setShowModal(true);
+            });
 
     }, [dispatch]);
 
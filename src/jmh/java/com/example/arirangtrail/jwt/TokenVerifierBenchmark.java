@@ -0,0 +1,93 @@
+package com.example.arirangtrail.jwt;
+
+import com.example.arirangtrail.component.user.UserProfileCache;
+import com.example.arirangtrail.data.entity.UserEntity;
+import com.example.arirangtrail.data.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 토큰을 파싱(서명 검증)하는 경우와 TokenVerifier 캐시를 거치는 경우의 비교.
+ * Redis / DB 는 메모리 스텁으로 대신하므로 순수하게 검증 경로의 CPU 비용만 봅니다.
+ * 실행: gradle jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenVerifierBenchmark {
+    private static final String SECRET = "benchmark-secret-key-benchmark-secret-key";
+
+    // 동시에 활동 중인 사용자 수 (서로 다른 토큰 수)
+    @Param({"1000"})
+    public int activeTokens;
+
+    private JwtUtil jwtUtil;
+    private TokenVerifier tokenVerifier;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET);
+        StringRedisTemplate redisTemplate = new StringRedisTemplate() {
+            @Override
+            public Boolean hasKey(String key) {
+                return false; // 로그아웃된 토큰 없음
+            }
+        };
+        UserProfileCache userProfileCache = new UserProfileCache(stubUserRepository(), new SimpleMeterRegistry(),
+                activeTokens * 2, 300);
+        tokenVerifier = new TokenVerifier(jwtUtil, redisTemplate, new RedisMessageListenerContainer(), userProfileCache,
+                new SimpleMeterRegistry(), "jwt:revoked", activeTokens * 2, 60);
+
+        tokens = new String[activeTokens];
+        for (int i = 0; i < activeTokens; i++) {
+            tokens[i] = jwtUtil.createToken("access", "user" + i, "ROLE_USER", TimeUnit.HOURS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public JwtClaims parseEveryRequest() {
+        return jwtUtil.parseClaims(nextToken());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JwtClaims cachedVerify() {
+        return tokenVerifier.verify(nextToken());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public JwtClaims parseEveryRequestConcurrent() {
+        return jwtUtil.parseClaims(nextToken());
+    }
+
+    private String nextToken() {
+        return tokens[ThreadLocalRandom.current().nextInt(tokens.length)];
+    }
+
+    // findByUsernameIn 만 쓰므로 요청한 username 그대로 사용자 엔티티를 돌려주는 스텁
+    private static UserRepository stubUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByUsernameIn".equals(method.getName())) {
+                        return ((Collection<?>) args[0]).stream()
+                                .map(username -> UserEntity.builder()
+                                        .username((String) username)
+                                        .nickname((String) username)
+                                        .build())
+                                .toList();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
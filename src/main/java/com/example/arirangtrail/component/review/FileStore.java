@@ -1,8 +1,15 @@
 package com.example.arirangtrail.component.review;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import lombok.RequiredArgsConstructor;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+import com.amazonaws.services.s3.transfer.Upload;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,59 +17,152 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * S3 업로드/삭제.
+ * 여러 파일은 TransferManager 로 동시에 올리고(동시 업로드 수는 file.upload.max-concurrent 로 제한),
+ * file.upload.multipart-threshold-mb 보다 큰 파일은 multipart 업로드로 나눠 보냅니다.
+ * 파일은 MultipartFile 의 InputStream 에서 바로 읽어 보내므로 메모리에 통째로 올리지 않습니다.
+ * 하나라도 실패하면 진행 중인 업로드를 중단하고 이미 올라간 객체를 지운 뒤 IOException 을 던집니다.
+ */
+@Slf4j
 @Component
 //@Profile("prod") // "prod" 프로필이 활성화될 때만 이 빈(Bean)을 생성하라는 의미!
-@RequiredArgsConstructor
 public class FileStore {
 
     private final AmazonS3 amazonS3;
+    private final TransferManager transferManager;
 
+    public FileStore(AmazonS3 amazonS3,
+                     @Value("${file.upload.max-concurrent:4}") int maxConcurrent,
+                     @Value("${file.upload.multipart-threshold-mb:8}") long multipartThresholdMb) {
+        this.amazonS3 = amazonS3;
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "s3-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.transferManager = TransferManagerBuilder.standard()
+                .withS3Client(amazonS3)
+                .withExecutorFactory(() -> executor)
+                .withMultipartUploadThreshold(multipartThresholdMb * 1024 * 1024)
+                .build();
+    }
+
+    // 비어 있지 않은 파일들을 동시에 올리고, 넘겨받은 순서대로 URL 을 돌려줍니다.
     public List<String> storeFiles(List<MultipartFile> multipartFiles, String bucket) throws IOException {
-        List<String> storeFileResult = new ArrayList<>();
-        if (multipartFiles != null) {
+        List<String> keys = new ArrayList<>();
+        List<Upload> uploads = new ArrayList<>();
+        if (multipartFiles == null) {
+            return keys;
+        }
+        try {
             for (MultipartFile multipartFile : multipartFiles) {
-                if (!multipartFile.isEmpty()) {
-                    storeFileResult.add(storeFile(multipartFile, bucket));
+                if (multipartFile.isEmpty()) {
+                    continue;
                 }
+                String storeFileName = createStoreFileName(multipartFile.getOriginalFilename());
+                keys.add(storeFileName);
+                uploads.add(transferManager.upload(bucket, storeFileName, multipartFile.getInputStream(), metadata(multipartFile)));
+            }
+            for (Upload upload : uploads) {
+                upload.waitForCompletion();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discard(bucket, keys, uploads);
+            throw new IOException("S3 업로드가 중단되었습니다.", e);
+        } catch (AmazonClientException | IOException e) {
+            discard(bucket, keys, uploads);
+            throw new IOException("S3 업로드 실패: " + e.getMessage(), e);
         }
-        return storeFileResult;
+
+        List<String> urls = new ArrayList<>();
+        for (String key : keys) {
+            // Return the full URL of the uploaded file
+            urls.add(amazonS3.getUrl(bucket, key).toString());
+        }
+        return urls;
     }
 
     public String storeFile(MultipartFile multipartFile, String bucket) throws IOException {
         if (multipartFile.isEmpty()) {
             return null;
         }
+        return storeFiles(List.of(multipartFile), bucket).get(0);
+    }
 
-        String originalFilename = multipartFile.getOriginalFilename();
-        String storeFileName = createStoreFileName(originalFilename);
-
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentLength(multipartFile.getSize());
-        metadata.setContentType(multipartFile.getContentType());
+    public void deleteFile(String fileUrl, String bucket) {
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            return;
+        }
+        try {
+            amazonS3.deleteObject(bucket, toKey(fileUrl, bucket));
+        } catch (Exception e) {
+            log.warn("S3 파일 삭제 실패 - Url: {}, Error: {}", fileUrl, e.getMessage());
+        }
+    }
 
-        amazonS3.putObject(bucket, storeFileName, multipartFile.getInputStream(), metadata);
+    // 여러 파일을 요청 한 번(DeleteObjects)으로 지웁니다.
+    public void deleteFiles(Collection<String> fileUrls, String bucket) {
+        List<String> keys = new ArrayList<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || fileUrl.isEmpty()) {
+                continue;
+            }
+            try {
+                keys.add(toKey(fileUrl, bucket));
+            } catch (Exception e) {
+                log.warn("S3 파일 URL 을 해석할 수 없습니다 - Url: {}", fileUrl);
+            }
+        }
+        deleteKeys(bucket, keys);
+    }
 
-        // Return the full URL of the uploaded file
-        return amazonS3.getUrl(bucket, storeFileName).toString();
+    // 진행 중인 업로드를 멈추고, 이미 올라간(또는 올라가는 중이던) 객체를 지웁니다.
+    private void discard(String bucket, List<String> keys, List<Upload> uploads) {
+        for (Upload upload : uploads) {
+            if (!upload.isDone()) {
+                try {
+                    upload.abort();
+                } catch (Exception e) {
+                    log.warn("S3 업로드 중단 실패: {}", e.getMessage());
+                }
+            }
+        }
+        deleteKeys(bucket, keys);
     }
 
-    public void deleteFile(String fileUrl, String bucket) {
-        if (fileUrl == null || fileUrl.isEmpty()) {
+    private void deleteKeys(String bucket, List<String> keys) {
+        if (keys.isEmpty()) {
             return;
         }
         try {
-            URL url = new URL(fileUrl);
-            String key = url.getPath().substring(1); // Remove the leading slash
-            amazonS3.deleteObject(bucket, key);
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucket).withKeys(keys.toArray(new String[0])).withQuiet(true));
         } catch (Exception e) {
-            // Log the exception
+            log.warn("S3 파일 삭제 실패 - Bucket: {}, Keys: {}, Error: {}", bucket, keys, e.getMessage());
         }
     }
 
+    private ObjectMetadata metadata(MultipartFile multipartFile) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        // 길이를 알려줘야 SDK 가 스트림을 메모리에 모으지 않고 그대로 보냅니다.
+        metadata.setContentLength(multipartFile.getSize());
+        metadata.setContentType(multipartFile.getContentType());
+        return metadata;
+    }
+
+    // path-style 주소(로컬 S3 호환 서버)면 경로 앞의 버킷 이름을 뗍니다.
+    private String toKey(String fileUrl, String bucket) throws IOException {
+        String path = new URL(fileUrl).getPath().substring(1); // Remove the leading slash
+        return path.startsWith(bucket + "/") ? path.substring(bucket.length() + 1) : path;
+    }
+
     private String createStoreFileName(String originalFilename) {
         String ext = extractExt(originalFilename);
         String uuid = UUID.randomUUID().toString();
@@ -73,4 +173,10 @@ public class FileStore {
         int pos = originalFilename.lastIndexOf(".");
         return originalFilename.substring(pos + 1);
     }
+
+    @PreDestroy
+    void shutdown() {
+        // AmazonS3 빈은 다른 곳에서도 쓰므로 TransferManager 의 스레드 풀만 닫습니다.
+        transferManager.shutdownNow(false);
+    }
 }
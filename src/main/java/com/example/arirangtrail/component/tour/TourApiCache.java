@@ -0,0 +1,111 @@
+package com.example.arirangtrail.component.tour;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * TourAPI 응답 캐시 (2단계).
+ * 1단계는 서버 메모리의 LRU(tour.cache.local-max-entries), 2단계는 서버들이 함께 쓰는 Redis 해시
+ * "tour:cache:{key}" (body, fetchedAt, retainUntil) 입니다. 메모리에 없으면 Redis 를 보고, Redis 에서 찾은 응답은 메모리로 올립니다.
+ * 얼마나 오래된 응답을 쓸지(신선/stale)는 TourApiGateway 가 fetchedAt 으로 판단하고, 여기서는 보관 기간만 지킵니다.
+ */
+@Slf4j
+@Component
+public class TourApiCache {
+    private static final String KEY_PREFIX = "tour:cache:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxEntries;
+
+    // key -> 응답 (접근 순서, 가장 오래 안 쓴 항목부터 제거)
+    private final LinkedHashMap<String, LocalEntry> local;
+
+    public TourApiCache(RedisTemplate<String, String> redisTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${tour.cache.local-max-entries:2000}") int maxEntries) {
+        this.redisTemplate = redisTemplate;
+        this.maxEntries = maxEntries;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > TourApiCache.this.maxEntries;
+            }
+        };
+
+        Gauge.builder("tour.cache.local.entries", this, TourApiCache::localSize).register(meterRegistry);
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            LocalEntry entry = local.get(key);
+            if (entry != null) {
+                if (entry.retainUntil > now) {
+                    return Optional.of(entry.response);
+                }
+                local.remove(key);
+            }
+        }
+
+        Map<Object, Object> hash;
+        try {
+            hash = redisTemplate.opsForHash().entries(KEY_PREFIX + key);
+        } catch (Exception e) {
+            // Redis 가 안 되면 원본 호출로 넘어갑니다.
+            log.warn("TourAPI 캐시(Redis) 조회 실패 - Key: {}, Error: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+        Object body = hash.get("body");
+        Object fetchedAt = hash.get("fetchedAt");
+        Object retainUntil = hash.get("retainUntil");
+        if (body == null || fetchedAt == null || retainUntil == null) {
+            return Optional.empty();
+        }
+
+        CachedResponse response = new CachedResponse(body.toString(), Long.parseLong(fetchedAt.toString()));
+        synchronized (this) {
+            local.put(key, new LocalEntry(response, Long.parseLong(retainUntil.toString())));
+        }
+        return Optional.of(response);
+    }
+
+    // 응답을 두 단계 모두에 retainFor 동안 보관합니다.
+    public void put(String key, CachedResponse response, Duration retainFor) {
+        long retainUntil = System.currentTimeMillis() + retainFor.toMillis();
+        synchronized (this) {
+            local.put(key, new LocalEntry(response, retainUntil));
+        }
+        try {
+            String redisKey = KEY_PREFIX + key;
+            redisTemplate.opsForHash().putAll(redisKey, Map.of(
+                    "body", response.body(),
+                    "fetchedAt", String.valueOf(response.fetchedAt()),
+                    "retainUntil", String.valueOf(retainUntil)));
+            redisTemplate.expire(redisKey, retainFor);
+        } catch (Exception e) {
+            log.warn("TourAPI 캐시(Redis) 저장 실패 - Key: {}, Error: {}", key, e.getMessage());
+        }
+    }
+
+    private synchronized int localSize() {
+        return local.size();
+    }
+
+    public record CachedResponse(String body, long fetchedAt) {
+        public Duration age(long now) {
+            return Duration.ofMillis(Math.max(0, now - fetchedAt));
+        }
+    }
+
+    private record LocalEntry(CachedResponse response, long retainUntil) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.arirangtrail.component.user;
+
+import com.example.arirangtrail.data.dto.user.UserProfileDTO;
+import com.example.arirangtrail.data.entity.UserEntity;
+import com.example.arirangtrail.data.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 닉네임/프로필 이미지 조회용 사용자 프로필 캐시 (서버별 메모리, LRU + TTL).
+ * 여러 명을 한꺼번에 볼 때는 getAll 로 캐시에 없는 사람만 findByUsernameIn 한 번으로 읽습니다.
+ * 프로필이 바뀌거나 탈퇴하면 UserDAO 에서 invalidate 합니다. 다른 서버의 캐시는 TTL 이 지나면 새로 읽습니다.
+ */
+@Component
+public class UserProfileCache {
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // access-order LinkedHashMap 으로 LRU. 접근은 this 로 동기화합니다.
+    private final LinkedHashMap<String, CachedProfile> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${user.profile-cache.max-entries:10000}") int maxEntries,
+                            @Value("${user.profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+                return size() > UserProfileCache.this.maxEntries;
+            }
+        };
+
+        this.hits = meterRegistry.counter("user.profile.cache", "result", "hit");
+        this.misses = meterRegistry.counter("user.profile.cache", "result", "miss");
+        Gauge.builder("user.profile.cache.size", this, UserProfileCache::size).register(meterRegistry);
+    }
+
+    public Optional<UserProfileDTO> get(String username) {
+        return Optional.ofNullable(getAll(List.of(username)).get(username));
+    }
+
+    // username -> 프로필. 존재하지 않는 사용자는 결과에서 빠집니다.
+    public Map<String, UserProfileDTO> getAll(Collection<String> usernames) {
+        Map<String, UserProfileDTO> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (String username : new LinkedHashSet<>(usernames)) {
+                CachedProfile cached = cache.get(username);
+                if (cached != null && cached.expiresAt > now) {
+                    result.put(username, cached.profile);
+                } else {
+                    missing.add(username);
+                }
+            }
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.increment(missing.size());
+
+        List<UserEntity> users = userRepository.findByUsernameIn(new ArrayList<>(missing));
+        synchronized (this) {
+            for (UserEntity user : users) {
+                UserProfileDTO profile = new UserProfileDTO(user.getUsername(), user.getNickname(), user.getImageurl());
+                cache.put(user.getUsername(), new CachedProfile(profile, now + ttlMillis));
+                result.put(user.getUsername(), profile);
+            }
+        }
+        return result;
+    }
+
+    // 프로필 변경/탈퇴 시 호출합니다. 트랜잭션 안이면 커밋 후에 한 번 더 지워서, 그 사이 읽힌 옛 값이 남지 않게 합니다.
+    public void invalidate(String username) {
+        remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(String username) {
+        cache.remove(username);
+    }
+
+    private synchronized int size() {
+        return cache.size();
+    }
+
+    private record CachedProfile(UserProfileDTO profile, long expiresAt) {
+    }
+}
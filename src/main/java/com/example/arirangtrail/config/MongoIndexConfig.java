@@ -0,0 +1,74 @@
+package com.example.arirangtrail.config;
+
+import com.example.arirangtrail.data.document.ChatMessage;
+import com.example.arirangtrail.data.document.UserChatStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// auto-index-creation 이 꺼져 있으므로, 조회 경로에 꼭 필요한 인덱스는 기동 시 직접 보장합니다. (이미 있으면 아무 일도 하지 않음)
+// 요청을 받기 전에 끝나야 하므로 빈 초기화 단계(@PostConstruct)에서 실행하고, 필수 인덱스를 만들지 못하면 기동을 멈춥니다.
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+    private final MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void ensureIndexes() {
+        // 대화 내역 seq 커서 조회 (roomId 일치 + messageSeq 범위/정렬)
+        mongoTemplate.indexOps(ChatMessage.class).createIndex(new Index()
+                .on("roomId", Sort.Direction.ASC)
+                .on("messageSeq", Sort.Direction.DESC)
+                .named("roomId_messageSeq"));
+        // 방 입장 시 중복 참여를 insert 한 번으로 걸러내기 위한 유니크 인덱스 (ChatService.joinRoom)
+        // 이 인덱스가 없으면 정원 제한이 깨지므로, 기존 중복 데이터 때문에 실패하면 정리 후 한 번 더 시도하고 그래도 안 되면 예외로 기동을 멈춥니다.
+        try {
+            createUserChatStatusIndex();
+        } catch (DuplicateKeyException e) {
+            log.warn("userChatStatus 에 중복 참여 데이터가 있어 정리 후 유니크 인덱스를 다시 만듭니다: {}", e.getMessage());
+            int removed = removeDuplicateStatuses();
+            log.warn("중복 참여 데이터 {}건 삭제", removed);
+            createUserChatStatusIndex();
+        }
+        log.info("Mongo 인덱스 확인 완료");
+    }
+
+    private void createUserChatStatusIndex() {
+        mongoTemplate.indexOps(UserChatStatus.class).createIndex(new Index()
+                .on("roomId", Sort.Direction.ASC)
+                .on("username", Sort.Direction.ASC)
+                .unique()
+                .named("room_user_unique_idx"));
+    }
+
+    // (roomId, username) 마다 가장 많이 읽은(lastReadMessageSeq 가 큰) 문서 하나만 남기고 나머지를 지웁니다.
+    private int removeDuplicateStatuses() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "lastReadMessageSeq")),
+                Aggregation.group("roomId", "username").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+        List<Object> duplicateIds = new ArrayList<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, UserChatStatus.class, Document.class)) {
+            List<?> ids = group.getList("ids", Object.class);
+            duplicateIds.addAll(ids.subList(1, ids.size()));
+        }
+        if (duplicateIds.isEmpty()) {
+            return 0;
+        }
+        return (int) mongoTemplate.remove(new Query(Criteria.where("_id").in(duplicateIds)), UserChatStatus.class)
+                .getDeletedCount();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.arirangtrail.config;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,6 +18,10 @@ public class S3Config {
     @Value("${cloud.aws.region.static}")
     private String region;
 
+    // 비워두면 AWS S3. 로컬 S3 호환 서버(MinIO, LocalStack 등)로 테스트할 때 주소를 넣습니다. (예: http://localhost:9000)
+    @Value("${cloud.aws.s3.endpoint:}")
+    private String endpoint;
+
     @Bean
     public AmazonS3 amazonS3Client() {
         // The DefaultAWSCredentialsProviderChain will look for credentials in the following order:
@@ -28,10 +33,15 @@ public class S3Config {
         // This is perfect for our use case where we inject credentials via GitHub Actions.
         AWSCredentials credentials = DefaultAWSCredentialsProviderChain.getInstance().getCredentials();
 
-        return AmazonS3ClientBuilder
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder
                 .standard()
-                .withCredentials(new AWSStaticCredentialsProvider(credentials))
-                .withRegion(region)
+                .withCredentials(new AWSStaticCredentialsProvider(credentials));
+        if (endpoint.isBlank()) {
+            return builder.withRegion(region).build();
+        }
+        return builder
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                .withPathStyleAccessEnabled(true)
                 .build();
     }
 }
@@ -0,0 +1,10 @@
+package com.example.arirangtrail.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// 채팅 이벤트 flush 등 주기 작업(@Scheduled)을 활성화합니다.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,7 +4,7 @@ import com.example.arirangtrail.config.oauth2.CustomAuthorizationRequestResolver
 import com.example.arirangtrail.jwt.JwtFilter;
 import com.example.arirangtrail.jwt.JwtLoginFilter;
 import com.example.arirangtrail.jwt.JwtUtil;
-import com.example.arirangtrail.jwt.customuserdetails.CustomUserDetailsService;
+import com.example.arirangtrail.jwt.TokenVerifier;
 import com.example.arirangtrail.service.Oauth2.CustomOAuth2UserService;
 import com.example.arirangtrail.service.Oauth2.OAuth2SuccessHandler;
 import lombok.RequiredArgsConstructor;
@@ -38,7 +38,7 @@ public class SecurityConfig {
     private final JwtUtil jwtUtil;
     private final CustomOAuth2UserService customOAuth2UserService;
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final TokenVerifier tokenVerifier;
     private final ClientRegistrationRepository clientRegistrationRepository;
 
     @Bean
@@ -92,7 +92,9 @@ public class SecurityConfig {
                                 "/api/reviews",
                                 "/api/reviews/{reviewId}",
                                 "/api/reviews/{reviewId}/comments",
-                                "/api/reviews/rating/**"
+                                "/api/reviews/rating/**",
+                                "/api/reviews/ratings", // 여러 축제 평점 한 번에
+                                "/api/tour/**" // TourAPI 중계(캐시)
 
                         ).permitAll()
 
@@ -133,7 +135,7 @@ public class SecurityConfig {
                     CorsConfiguration corsConfiguration = new CorsConfiguration();
                     corsConfiguration.setAllowCredentials(true);
                     corsConfiguration.addAllowedHeader("*"); //클라이언트가 요청을 보낼때 보낼수 있는 헤더
-                    corsConfiguration.setExposedHeaders(List.of("Authorization")); //서버가 응답을 보낼때 브라우저가 접근할수 있는 헤더
+                    corsConfiguration.setExposedHeaders(List.of("Authorization", "ETag", "X-Lobby-Version")); //서버가 응답을 보낼때 브라우저가 접근할수 있는 헤더
                     corsConfiguration.addAllowedMethod("*");
                     corsConfiguration.addAllowedOrigin("http://localhost:3000");
                     corsConfiguration.addAllowedOrigin("http://arirangtrail.duckdns.org");
@@ -144,7 +146,7 @@ public class SecurityConfig {
                 .sessionManagement(session->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
-                .addFilterBefore(new JwtFilter(jwtUtil,customUserDetailsService), JwtLoginFilter.class)
+                .addFilterBefore(new JwtFilter(tokenVerifier), JwtLoginFilter.class)
 
                 .addFilterAt(jwtLoginFilter, UsernamePasswordAuthenticationFilter.class)
 
@@ -1,8 +1,6 @@
 package com.example.arirangtrail.config.websocketHandler;
 
-import com.example.arirangtrail.jwt.JwtUtil;
-import com.example.arirangtrail.jwt.customuserdetails.CustomUserDetails;
-import com.example.arirangtrail.jwt.customuserdetails.CustomUserDetailsService;
+import com.example.arirangtrail.jwt.TokenVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -21,8 +19,7 @@ import org.springframework.stereotype.Component;
 // 이 클래스는 인터셉트를 통해 웹소켓의 헤더에 담긴 authorization 토큰을 검증하는 역할을 수행한다.
 public class StompHandler implements ChannelInterceptor {
 
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final TokenVerifier tokenVerifier;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -30,27 +27,26 @@ public class StompHandler implements ChannelInterceptor {
         StompCommand command = accessor.getCommand();
 
         // 💡 3. 어떤 명령이 들어오는지 로그로 확인
-        log.info("STOMP Command: {}", command);
+        log.debug("STOMP Command: {}", command);
 
         // 💡 4. 모든 헤더 정보를 로그로 확인 (어떤 헤더가 들어오는지 정확히 보기 위함)
-        log.info("STOMP Headers: {}", accessor.getMessageHeaders());
+        log.debug("STOMP Headers: {}", accessor.getMessageHeaders());
 
         if (command == StompCommand.CONNECT) {
             try {
                 String jwtToken = accessor.getFirstNativeHeader("Authorization");
-                log.info("Authorization 헤더에서 추출된 값: {}", jwtToken);
 
                 // 'Bearer ' 접두사를 제거해야 할 수도 있습니다.
                 // 아래 removeBearerPrefix 함수를 참고하세요.
                 String pureToken = removeBearerPrefix(jwtToken);
-                log.info("순수 토큰: {}", pureToken);
 
                 // ✨ validateToken이 false를 반환하면 (유효하지 않으면) 예외를 던집니다.
-                if (!jwtUtil.validateToken(pureToken)) {
+                // HTTP 요청에서 이미 검증한 토큰이면 캐시된 결과를 씁니다.
+                if (!tokenVerifier.isValid(pureToken)) {
                     throw new SecurityException("유효하지 않은 토큰입니다.");
                 }
 
-                log.info("토큰 검증 성공!");
+                log.debug("토큰 검증 성공!");
 
             } catch (Exception e) {
                 log.error("STOMP 연결 중 토큰 검증 실패: {}", e.getMessage());
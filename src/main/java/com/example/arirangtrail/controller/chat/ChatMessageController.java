@@ -2,6 +2,7 @@ package com.example.arirangtrail.controller.chat;
 
 import com.example.arirangtrail.data.document.ChatMessage;
 import com.example.arirangtrail.data.dto.chat.message.ChatMessageDTO;
+import com.example.arirangtrail.service.chat.ChatBroadcaster;
 import com.example.arirangtrail.service.chat.ChatService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -9,11 +10,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 import java.util.Map;
@@ -22,7 +23,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 @RequestMapping("/api/chat")
 public class ChatMessageController {
-    private final SimpMessagingTemplate template;
+    private static final int MAX_SLICE_SIZE = 200;
+
+    private final ChatBroadcaster chatBroadcaster;
     private final ChatService chatService;
 
     @MessageMapping("/chat/enter")
@@ -35,8 +38,8 @@ public class ChatMessageController {
 
         // ★★★ 이제 DTO의 'nickname' 필드는 이미 프론트에서 보내준 값으로 채워져 있으므로,
         // 별도로 set 할 필요 없이 그대로 방송하면 됩니다.
-        template.convertAndSend("/sub/chat/room/" + message.getRoomId(), message);
-        template.convertAndSend("/sub/chat/lobby", "user-entered-or-left");
+        // 입장 인사는 방 안에만 보냅니다. 참여자 수 변화는 join API 에서 ROOM_CHANGED 로 로비에 나갑니다.
+        chatBroadcaster.send("/sub/chat/room/" + message.getRoomId(), message);
     }
 
     @MessageMapping("/chat/message")
@@ -46,17 +49,28 @@ public class ChatMessageController {
         ChatMessage savedMessage = chatService.saveMessage(message);
 
         // 서비스에서 반환된 객체는 모든 정보가 담겨있으므로 그대로 방송합니다.
-        template.convertAndSend("/sub/chat/room/" + savedMessage.getRoomId(), savedMessage);
+        chatBroadcaster.send("/sub/chat/room/" + savedMessage.getRoomId(), savedMessage);
     }
 
     // api. 기본적으로 전에 메세지들을 가져온다. 기본설정 가장 최근 메세지 50개
+    // beforeSeq/afterSeq 를 넘기면 seq 커서 방식으로 { messages, nextBeforeSeq, nextAfterSeq } 를 반환하고,
+    // 둘 다 없으면 기존처럼 page/size 기반 메시지 배열을 반환합니다.
     @GetMapping("/rooms/{roomId}/messages")
-    public ResponseEntity<List<ChatMessage>> getPreviousMessages(
+    public ResponseEntity<?> getPreviousMessages(
             @PathVariable String roomId,
+            @RequestParam(required = false) Long beforeSeq,
+            @RequestParam(required = false) Long afterSeq,
             @PageableDefault(size = 50, sort = "messageSeq", direction = Sort.Direction.DESC) Pageable pageable) {
         try {
             // ★ 서비스로 전달하기 전에 Long으로 변환
             Long roomIdLong = Long.parseLong(roomId);
+            if (beforeSeq != null || afterSeq != null) {
+                if (beforeSeq != null && afterSeq != null) {
+                    return ResponseEntity.badRequest().build();
+                }
+                int size = Math.min(pageable.getPageSize(), MAX_SLICE_SIZE);
+                return ResponseEntity.ok(chatService.getMessageSlice(roomIdLong, beforeSeq, afterSeq, size));
+            }
             List<ChatMessage> messages = chatService.getPreviousMessages(roomIdLong, pageable);
             return ResponseEntity.ok(messages);
         } catch (NumberFormatException e) {
@@ -5,8 +5,10 @@ import com.example.arirangtrail.data.document.ChatRoom;
 import com.example.arirangtrail.data.dto.chat.chatRoom.*;
 import com.example.arirangtrail.data.dto.chat.message.UpdateReqDTO;
 import com.example.arirangtrail.service.chat.ChatService;
+import com.example.arirangtrail.service.chat.LobbySnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,13 +26,23 @@ public class ChatRoomController {
 
     // 모든 채팅방 목록 반환
     @GetMapping
-    public ResponseEntity<List<ChatRoomListDTO>> getAllRooms(Principal principal) {
+    public ResponseEntity<List<ChatRoomListDTO>> getAllRooms(
+            Principal principal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (principal == null || principal.getName() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         String username = principal.getName();
 
-        return ResponseEntity.ok(chatService.findAllRoom(username));
+        // 로비 버전 + 내 안 읽은 수가 그대로라면 목록 본문 없이 304만 돌려줍니다.
+        LobbySnapshotService.LobbyView lobby = chatService.findLobby(username);
+        if (lobby.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(lobby.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(lobby.getEtag())
+                .header("X-Lobby-Version", String.valueOf(lobby.getVersion()))
+                .body(lobby.getRooms());
     }
 
     // 채팅방 생성
@@ -1,14 +1,18 @@
 package com.example.arirangtrail.controller.redis;
 
+import com.example.arirangtrail.data.dto.visitor.VisitorStatsDTO;
 import com.example.arirangtrail.service.redis.VisitorService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -40,4 +44,18 @@ public class VisitorController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
-}
\ No newline at end of file
+    // 기간별 방문자 통계. 예: /api/visitors/stats?from=2025-07-01&to=2025-07-31&granularity=day
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            VisitorService.Granularity unit = VisitorService.Granularity.valueOf(granularity.toUpperCase());
+            VisitorStatsDTO stats = visitorService.getStats(from, to, unit);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            // 알 수 없는 granularity, from > to, 버킷 개수 초과
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.arirangtrail.controller.reissue;
 
+import com.example.arirangtrail.jwt.JwtClaims;
 import com.example.arirangtrail.jwt.JwtUtil;
+import com.example.arirangtrail.jwt.TokenVerifier;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +22,7 @@ import java.util.Map;
 @RequestMapping(value = "/api")
 public class ReissueController {
     private final JwtUtil jwtUtil;
+    private final TokenVerifier tokenVerifier;
 
     @PostMapping(value = "/reissue")
     public ResponseEntity<?> reissue(HttpServletRequest request, HttpServletResponse response) {
@@ -39,20 +42,22 @@ public class ReissueController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("토큰 null");
         }
 
+        JwtClaims claims;
         try {
-            jwtUtil.isExpired(refreshToken);
+            claims = tokenVerifier.verify(refreshToken);
         } catch (ExpiredJwtException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("만료된 토큰");
+        } catch (SecurityException ex) {
+            // 로그아웃으로 무효화된 토큰, 탈퇴한 사용자의 토큰
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("유효하지 않는 토큰");
         }
 
-        String category = this.jwtUtil.getCategory(refreshToken);
-
-        if (!category.equals("refresh")) {
+        if (!"refresh".equals(claims.getCategory())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("유효하지 않는 토큰");
         }
 
-        String username = jwtUtil.getUserName(refreshToken);
-        String role = jwtUtil.getRole(refreshToken);
+        String username = claims.getUsername();
+        String role = claims.getRole();
 
         // Access token validity in seconds (1 hour = 3600 seconds)
         long accessTokenValidityInSeconds = 3600L;
@@ -87,20 +92,22 @@ public class ReissueController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("토큰 null");
         }
 
+        JwtClaims claims;
         try {
-            jwtUtil.isExpired(refreshToken);
+            claims = tokenVerifier.verify(refreshToken);
         } catch (ExpiredJwtException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("만료된 토큰");
+        } catch (SecurityException ex) {
+            // 로그아웃으로 무효화된 토큰, 탈퇴한 사용자의 토큰
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("유효하지 않는 토큰");
         }
 
-        String category = this.jwtUtil.getCategory(refreshToken);
-
-        if (!category.equals("refresh")) {
+        if (!"refresh".equals(claims.getCategory())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("유효하지 않는 토큰");
         }
 
-        String username = jwtUtil.getUserName(refreshToken);
-        String role = jwtUtil.getRole(refreshToken);
+        String username = claims.getUsername();
+        String role = claims.getRole();
 
         // Access token validity in seconds (1 hour = 3600 seconds)
         long accessTokenValidityInSeconds = 3600L;
@@ -8,9 +8,6 @@ import com.example.arirangtrail.service.review.ReviewService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -72,12 +69,16 @@ public class ReviewController {
         }
     }
 
-    // 모든 리뷰 조회 엔드포인트
+    // 리뷰 피드 (최신순, 커서 기반). 첫 요청은 cursor 없이, 다음부터는 응답의 nextCursor 를 넘깁니다.
     @GetMapping
-    public ResponseEntity<ReviewListResponseDto> getAllReviews(
-            @PageableDefault(size = 20, sort = "createdat", direction = Sort.Direction.DESC) Pageable pageable) {
-        ReviewListResponseDto reviewListResponse = reviewService.getAllReviews(pageable);
-        return ResponseEntity.ok(reviewListResponse);
+    public ResponseEntity<?> getReviewFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewFeed(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     // 단일 리뷰 조회 엔드포인트
@@ -111,6 +112,16 @@ public class ReviewController {
         return ResponseEntity.ok(averageRating); // 0.0일 경우도 그대로 반환//프론트에서 처리
     }
 
+    // 여러 축제의 평점(개수, 평균, 별점 분포)을 한 번에 조회합니다. 예: /api/reviews/ratings?contentids=1,2,3
+    @GetMapping("/ratings")
+    public ResponseEntity<?> getRatingsByContentids(@RequestParam List<Long> contentids) {
+        try {
+            return ResponseEntity.ok(reviewService.findRatingsByContentids(contentids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{reviewid}/comments")
     public ResponseEntity<List<ReviewCommentDTO>> reviewCommentsByReviewid(@PathVariable Long reviewid) {
         List<ReviewCommentDTO> commentDTOList = this.reviewCommentService.getReviewCommentsByReviewId(reviewid);
@@ -0,0 +1,49 @@
+package com.example.arirangtrail.controller.tour;
+
+import com.example.arirangtrail.service.tour.TourApiGateway;
+import com.example.arirangtrail.service.tour.TourEndpoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// 프론트엔드가 TourAPI 를 직접 부르지 않고 서버 캐시를 거치도록 하는 중계 API. 응답 형식은 TourAPI 와 같습니다.
+@Slf4j
+@RestController
+@RequestMapping("/api/tour")
+@RequiredArgsConstructor
+public class TourApiController {
+    private final TourApiGateway tourApiGateway;
+
+    // 예: GET /api/tour/searchFestival2?eventStartDate=20250801&numOfRows=50&pageNo=1
+    // 오퍼레이션마다 정해진 파라미터만 받습니다. (TourEndpoint.normalize)
+    @GetMapping("/{operation}")
+    public ResponseEntity<?> proxy(@PathVariable String operation,
+                                        @RequestParam Map<String, String> params) {
+        TourEndpoint endpoint = TourEndpoint.fromOperation(operation).orElse(null);
+        if (endpoint == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, String> query;
+        try {
+            query = endpoint.normalize(params);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        try {
+            String body = tourApiGateway.get(endpoint, query);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (IllegalArgumentException e) {
+            // TourAPI 가 요청을 거절한 경우 (파라미터 오류 등)
+            log.info(e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("message", "TourAPI 요청 파라미터 오류"));
+        } catch (IllegalStateException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+}
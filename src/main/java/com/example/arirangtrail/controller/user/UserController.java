@@ -5,6 +5,7 @@ import com.example.arirangtrail.data.dto.user.JoinDTO;
 import com.example.arirangtrail.data.dto.user.UserDTO;
 import com.example.arirangtrail.data.entity.UserEntity; // UserEntity 임포트 추가 (updateInform 때문)
 import com.example.arirangtrail.jwt.JwtUtil;
+import com.example.arirangtrail.jwt.TokenVerifier;
 import com.example.arirangtrail.service.user.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.Cookie;
@@ -30,6 +31,7 @@ import java.util.Map;
 @RequestMapping(value = "/api")
 public class UserController {
     private final JwtUtil jwtUtil;
+    private final TokenVerifier tokenVerifier;
     private final UserService userService;
     private final RedisTemplate<String, String> redisTemplate;
 
@@ -103,6 +105,32 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.OK).body(userDTO);
     }
 
+    // 로그아웃: access/refresh 토큰을 무효화하고 refresh 쿠키를 지웁니다.
+    @PostMapping(value = "/logout")
+    public ResponseEntity<String> logout(HttpServletRequest request) {
+        String token = request.getHeader("authorization");
+        if (token != null && token.startsWith("Bearer ")) {
+            this.tokenVerifier.revoke(token.substring(7));
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (cookie.getName().equals("refresh")) {
+                    this.tokenVerifier.revoke(cookie.getValue());
+                }
+            }
+        }
+        ResponseCookie expiredRefreshCookie = ResponseCookie.from("refresh", "")
+                .httpOnly(true)
+                .secure(false)
+                .path("/")
+                .maxAge(0)
+                .sameSite("Lax")
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, expiredRefreshCookie.toString())
+                .body("logged out");
+    }
+
     @DeleteMapping(value = "/delete-member")
     public ResponseEntity<String> deleteMember(HttpServletRequest request) {
         String token = request.getHeader("authorization");
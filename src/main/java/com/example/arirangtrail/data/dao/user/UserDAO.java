@@ -1,5 +1,6 @@
 package com.example.arirangtrail.data.dao.user;
 
+import com.example.arirangtrail.component.user.UserProfileCache;
 import com.example.arirangtrail.data.dto.user.JoinDTO;
 import com.example.arirangtrail.data.entity.UserEntity;
 import com.example.arirangtrail.data.repository.UserRepository;
@@ -21,6 +22,7 @@ import java.util.UUID;
 public class UserDAO {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserProfileCache userProfileCache;
 
     public String join(String username, String password, String email, String firstName, String lastName, LocalDate birthdate, String nickname) {
         UserEntity userEntity = UserEntity.builder()
@@ -83,7 +85,9 @@ public class UserDAO {
             updateUser.setImageurl(imageurl);
 
             try {
-                return this.userRepository.save(updateUser);
+                UserEntity saved = this.userRepository.save(updateUser);
+                this.userProfileCache.invalidate(username); // 닉네임/프로필 이미지가 바뀌었을 수 있음
+                return saved;
             } catch (DataIntegrityViolationException e) {
                 e.printStackTrace();
                 throw new IllegalArgumentException("데이터 업데이트 중 문제가 발생했습니다 (예: 닉네임/이메일 중복).", e);
@@ -117,6 +121,7 @@ public class UserDAO {
         Optional<UserEntity> user = this.userRepository.findById(username);
         if(user.isPresent()){
             this.userRepository.delete(user.get());
+            this.userProfileCache.invalidate(username);
         }else {
             throw new EntityNotFoundException("user not found");
         }
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+// participantCount / lastMessageSeq 는 조건부 $inc 로만 바뀌므로, 만든 뒤에는 문서 전체를 save 하지 말고 바꿀 필드만 update 합니다.
 @Getter
 @Setter
 @Document(collection = "chatRooms")
@@ -22,9 +23,10 @@ public class ChatRoom {
     private String creatorNickname; // ✅ 추가: 생성자 닉네임
     private LocalDateTime meetingDate; // 모임 날짜
     private Integer maxParticipants; // 방 총 제한 인원수
+    private long participantCount; // 현재 참여자 수 (입장/퇴장 시 조건부 $inc 로만 변경)
     private String notice; // 공지사항
 
-    private long lastMessageSeq; // 마지막 메시지 순번
+    private long lastMessageSeq; // 마지막으로 발급된 메시지 순번 (SequenceService 가 메시지마다 1씩 올림)
     private LocalDateTime createdAt; // 방 생성일 (이미 존재)
     private LocalDateTime updatedAt; // 방 수정일
 
@@ -0,0 +1,25 @@
+package com.example.arirangtrail.data.dto.chat.chatRoom;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// /sub/chat/lobby 로 나가는 로비 변경분(delta).
+// version 은 로비 버전으로 1씩 증가하므로, 클라이언트는 건너뛴 번호가 보이면 GET /api/chat/rooms 로 다시 맞춥니다.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LobbyEventDTO {
+    public enum EventType {
+        ROOM_CREATED, ROOM_DELETED, ROOM_CHANGED
+    }
+    private EventType type;
+    private long version;
+    private Long roomId;
+    private ChatRoomListDTO room; // ROOM_CREATED 일 때만
+    private Long participantCount; // ROOM_CHANGED 일 때만
+}
@@ -0,0 +1,17 @@
+package com.example.arirangtrail.data.dto.chat.message;
+
+import com.example.arirangtrail.data.document.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// seq 커서 기반 대화 내역 조각. messages 는 항상 오름차순(과거 -> 최신)입니다.
+// 더 가져올 것이 없으면 해당 방향의 커서는 null 입니다.
+@Data
+@AllArgsConstructor
+public class ChatMessageSliceDTO {
+    private List<ChatMessage> messages;
+    private Long nextBeforeSeq; // 더 과거를 볼 때 beforeSeq 로 넘길 값
+    private Long nextAfterSeq;  // 이후 메시지를 볼 때 afterSeq 로 넘길 값
+}
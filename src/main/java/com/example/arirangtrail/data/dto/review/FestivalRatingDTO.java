@@ -0,0 +1,15 @@
+package com.example.arirangtrail.data.dto.review;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class FestivalRatingDTO {
+    private Long contentid;
+    private long reviewCount;
+    private double averageRating;   // 리뷰가 없으면 0.0
+    private List<Long> histogram;   // 1점 ~ 5점 리뷰 수 (index 0 = 1점)
+}
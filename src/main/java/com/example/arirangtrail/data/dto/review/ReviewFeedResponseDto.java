@@ -0,0 +1,13 @@
+package com.example.arirangtrail.data.dto.review;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ReviewFeedResponseDto {
+    private List<ReviewSummaryDto> reviews;
+    private String nextCursor; // 다음 요청에 그대로 넘기는 값. 마지막 페이지면 null
+}
@@ -0,0 +1,31 @@
+package com.example.arirangtrail.data.dto.review;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 리뷰 목록(피드)용 요약 DTO 입니다.
+ * 본문 전체와 사진 목록 대신 앞부분(excerpt)과 첫 사진만 담고, 전체 내용은 단일 리뷰 조회(ReviewResponseDto)에서 받습니다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewSummaryDto {
+    private Long reviewId; // 리뷰 ID
+    private String username; // 작성자 닉네임
+    private Long contentId; // 축제/관광지 ID
+    private String contentTitle; // 축제/관광지 제목
+    private String title; // 리뷰 제목
+    private String excerpt; // 본문 앞부분
+    private BigDecimal rating; // 평점
+    private String thumbnailUrl; // 첫 번째 사진 URL (없으면 null)
+    private LocalDateTime createdAt; // 생성일시
+}
@@ -0,0 +1,13 @@
+package com.example.arirangtrail.data.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 화면에 작성자/참여자로 보여줄 때 필요한 최소 정보 (UserProfileCache 에 그대로 캐시됨)
+@Getter
+@AllArgsConstructor
+public class UserProfileDTO {
+    private final String username;
+    private final String nickname;
+    private final String imageurl;
+}
@@ -0,0 +1,24 @@
+package com.example.arirangtrail.data.dto.visitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class VisitorStatsDTO {
+    private String granularity; // hour, day, week, month
+    private LocalDate from;
+    private LocalDate to;
+    private long total;          // 기간 전체의 순 방문자 수 (버킷끼리 겹치는 방문자는 한 번만)
+    private List<Bucket> buckets;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Bucket {
+        private String bucket;   // 예: 2025-07-30T14, 2025-07-30, 2025-W31, 2025-07
+        private long count;      // 해당 버킷 기간 전체의 순 방문자 수
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.arirangtrail.data.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * TourAPI 축제 목록(searchFestival2)을 주기적으로 복사해두는 'festival_catalog' 테이블 엔티티입니다.
+ * 좋아요 목록처럼 여러 축제의 제목/이미지가 한 번에 필요할 때 원격 호출 대신 이 테이블을 조회합니다.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "festival_catalog", indexes = @Index(name = "idx_festival_catalog_modifiedtime", columnList = "modifiedtime"))
+public class FestivalCatalogEntity {
+    @Id
+    @Column(name = "contentid", nullable = false)
+    private Long contentid;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "firstimage", length = 500)
+    private String firstimage;
+
+    @Column(name = "addr1")
+    private String addr1;
+
+    @Column(name = "areacode", length = 10)
+    private String areacode;
+
+    @Column(name = "eventstartdate", length = 8)
+    private String eventstartdate; // yyyyMMdd
+
+    @Column(name = "eventenddate", length = 8)
+    private String eventenddate; // yyyyMMdd
+
+    @Column(name = "mapx")
+    private Double mapx;
+
+    @Column(name = "mapy")
+    private Double mapy;
+
+    // TourAPI 의 수정 시각(yyyyMMddHHmmss). 이 값이 바뀐 항목만 다시 씁니다.
+    @Column(name = "modifiedtime", nullable = false, length = 14)
+    private String modifiedtime;
+
+    @UpdateTimestamp
+    @Column(name = "syncedat", nullable = false)
+    private LocalDateTime syncedat;
+
+    public FestivalCatalogEntity(Long contentid) {
+        this.contentid = contentid;
+    }
+}
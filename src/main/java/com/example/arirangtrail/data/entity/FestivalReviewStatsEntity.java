@@ -0,0 +1,45 @@
+package com.example.arirangtrail.data.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * 축제(contentid)별 리뷰 평점 집계를 담는 'festival_review_stats' 테이블 엔티티입니다.
+ * 리뷰 작성/수정/삭제와 같은 트랜잭션 안에서 ReviewStatsService 가 증감으로 갱신하므로, 평균을 낼 때 리뷰를 읽지 않습니다.
+ * 별점 분포는 평점을 반올림한 1~5점 기준입니다. (예: 4.5 -> 5점)
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "festival_review_stats")
+public class FestivalReviewStatsEntity {
+    @Id
+    @Column(name = "contentid", nullable = false)
+    private Long contentid;
+
+    @Column(name = "reviewcount", nullable = false)
+    private long reviewcount;
+
+    @Column(name = "ratingsum", nullable = false, precision = 12, scale = 1)
+    private BigDecimal ratingsum = BigDecimal.ZERO;
+
+    @Column(name = "star1", nullable = false)
+    private long star1;
+
+    @Column(name = "star2", nullable = false)
+    private long star2;
+
+    @Column(name = "star3", nullable = false)
+    private long star3;
+
+    @Column(name = "star4", nullable = false)
+    private long star4;
+
+    @Column(name = "star5", nullable = false)
+    private long star5;
+}
@@ -26,7 +26,7 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = @Index(name = "idx_reviews_createdat_reviewid", columnList = "createdat, reviewid")) // 리뷰 피드 커서 정렬용
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
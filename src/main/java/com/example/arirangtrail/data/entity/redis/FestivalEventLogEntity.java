@@ -0,0 +1,30 @@
+package com.example.arirangtrail.data.entity.redis;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * FestivalEventWorker 가 share_count 에 이미 더한 공유 이벤트의 스트림 ID 를 남기는 'festival_event_log' 테이블.
+ * 카운트 증감과 같은 트랜잭션에서 INSERT IGNORE 하므로, 커밋 후 XACK 전에 죽어 같은 이벤트를 다시 읽어도 한 번만 더해집니다.
+ * 오래된 행은 워커가 주기적으로 지웁니다. (JdbcTemplate 으로만 쓰며, 엔티티는 테이블 생성용입니다)
+ */
+@Getter
+@Entity
+@NoArgsConstructor
+@Table(name = "festival_event_log",
+        indexes = @Index(name = "idx_festival_event_log_processed_at", columnList = "processed_at"))
+public class FestivalEventLogEntity {
+    @Id
+    @Column(name = "stream_id", nullable = false, length = 40)
+    private String streamId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
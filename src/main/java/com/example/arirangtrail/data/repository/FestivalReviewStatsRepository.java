@@ -0,0 +1,9 @@
+package com.example.arirangtrail.data.repository;
+
+import com.example.arirangtrail.data.entity.FestivalReviewStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FestivalReviewStatsRepository extends JpaRepository<FestivalReviewStatsEntity, Long> {
+}
@@ -1,11 +1,16 @@
 package com.example.arirangtrail.data.repository;
 
 import com.example.arirangtrail.data.entity.ReviewEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional; // Optional 임포트 추가
 
@@ -21,13 +26,36 @@ public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
     // JpaRepository에 기본적으로 findById가 있지만, 명시적으로 추가하여 주석으로 설명합니다.
     Optional<ReviewEntity> findById(Long reviewId);
 
-    /**
-     * 특정 contentid에 대한 리뷰들의 평균 평점을 조회합니다.
-     * @param contentid 평균 평점을 조회할 축제/관광지의 ID
-     * @return 해당 contentid의 평균 평점 (리뷰가 없으면 null 반환)
-     */
-    @Query("SELECT AVG(e.rating) FROM ReviewEntity e WHERE e.contentid = :contentid") // contentid 필드 이름 확인
-    Double findAverageRatingByContentid(@Param("contentid") String contentid); // contentid의 타입이 String이므로 변경
+    // 수정/삭제 시 기존 평점을 읽고 집계를 바꾸는 동안 다른 수정이 끼어들지 않도록 행을 잠급니다. (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ReviewEntity r where r.id = :id")
+    Optional<ReviewEntity> findByIdForUpdate(@Param("id") Long id);
 
-    List<ReviewEntity> findByContentid(Long contentid);
+    // 리뷰 피드 (createdat, reviewid) 내림차순. 커서 없이 첫 페이지를 읽습니다. 본문은 앞부분만 가져옵니다.
+    // content 는 @Lob(CLOB)이라 SUBSTRING 인자로 받지 않으므로 문자열로 CAST 합니다.
+    @Query("SELECT r.id AS id, r.username AS username, r.contentid AS contentid, r.contenttitle AS contenttitle, " +
+            "r.title AS title, SUBSTRING(CAST(r.content AS String), 1, :excerptLength) AS excerpt, r.rating AS rating, r.createdat AS createdat " +
+            "FROM ReviewEntity r ORDER BY r.createdat DESC, r.id DESC")
+    List<ReviewSummaryView> findFeed(@Param("excerptLength") int excerptLength, Limit limit);
+
+    // 커서 (createdat, reviewid) 다음부터 읽습니다. idx_reviews_createdat_reviewid 를 따라 범위 스캔합니다.
+    @Query("SELECT r.id AS id, r.username AS username, r.contentid AS contentid, r.contenttitle AS contenttitle, " +
+            "r.title AS title, SUBSTRING(CAST(r.content AS String), 1, :excerptLength) AS excerpt, r.rating AS rating, r.createdat AS createdat " +
+            "FROM ReviewEntity r " +
+            "WHERE r.createdat < :createdat OR (r.createdat = :createdat AND r.id < :id) " +
+            "ORDER BY r.createdat DESC, r.id DESC")
+    List<ReviewSummaryView> findFeedAfter(@Param("createdat") LocalDateTime createdat, @Param("id") Long id,
+                                          @Param("excerptLength") int excerptLength, Limit limit);
+
+    // 피드용 요약 projection (본문 전체와 사진 컬렉션은 읽지 않음)
+    interface ReviewSummaryView {
+        Long getId();
+        String getUsername();
+        Long getContentid();
+        String getContenttitle();
+        String getTitle();
+        String getExcerpt();
+        BigDecimal getRating();
+        LocalDateTime getCreatedat();
+    }
 }
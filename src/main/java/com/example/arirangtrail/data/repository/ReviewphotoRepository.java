@@ -2,8 +2,20 @@ package com.example.arirangtrail.data.repository;
 
 import com.example.arirangtrail.data.entity.ReviewphotoEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ReviewphotoRepository extends JpaRepository<ReviewphotoEntity, Long> {
+    // 여러 리뷰의 사진을 IN 쿼리 한 번으로 가져옵니다. (리뷰 목록에서 리뷰마다 사진 컬렉션을 따로 읽지 않도록)
+    List<ReviewphotoEntity> findByReview_IdInOrderByIdAsc(Collection<Long> reviewIds);
+
+    // 리뷰별 첫 번째 사진 (reviewid, imageurl). 피드 썸네일용
+    @Query("SELECT p.review.id, p.imageurl FROM ReviewphotoEntity p WHERE p.id IN " +
+            "(SELECT MIN(p2.id) FROM ReviewphotoEntity p2 WHERE p2.review.id IN :reviewIds GROUP BY p2.review.id)")
+    List<Object[]> findFirstPhotoUrls(@Param("reviewIds") Collection<Long> reviewIds);
 }
@@ -0,0 +1,20 @@
+package com.example.arirangtrail.jwt;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+// 한 번 파싱/서명 검증을 끝낸 토큰 내용. 만들어진 뒤에는 바뀌지 않으므로 캐시에 그대로 두고 공유합니다.
+@Getter
+@AllArgsConstructor
+public final class JwtClaims {
+    private final String category;
+    private final String username;
+    private final String role;
+    private final Date expiration;
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
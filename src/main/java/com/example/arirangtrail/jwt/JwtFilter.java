@@ -1,7 +1,5 @@
 package com.example.arirangtrail.jwt;
 
-import com.example.arirangtrail.jwt.customuserdetails.CustomUserDetails;
-import com.example.arirangtrail.jwt.customuserdetails.CustomUserDetailsService;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -25,9 +23,8 @@ import java.util.List;
 
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
-    private final JwtUtil jwtUtil;
-    // ★★★ 1. CustomUserDetailsService를 주입받습니다. ★★★
-    private final CustomUserDetailsService customUserDetailsService;
+    // 토큰은 TokenVerifier 에서 한 번만 파싱하고, 같은 토큰은 캐시된 결과를 씁니다.
+    private final TokenVerifier tokenVerifier;
     private final AntPathMatcher antPathMatcher = new AntPathMatcher();
 
 //    // ★ 4. 토큰 검사를 건너뛸 경로 목록 정의
@@ -73,35 +70,35 @@ public class JwtFilter extends OncePerRequestFilter {
 
         token = token.split(" ")[1];
 
+        JwtClaims claims;
         try{
-            this.jwtUtil.isExpired(token);
+            claims = this.tokenVerifier.verify(token);
         }catch(ExpiredJwtException e){
             response.getWriter().write("access token expired");
             response.setStatus(456); // 커스텀 상태 코드
             response.setCharacterEncoding("UTF-8");
             return;
+        }catch(SecurityException e){
+            // 로그아웃으로 무효화된 토큰, 탈퇴한 사용자의 토큰
+            response.getWriter().write("invalid access token");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setCharacterEncoding("UTF-8");
+            return;
         }
 
-        String category = this.jwtUtil.getCategory(token);
-        if(!category.equals("access")){
+        if(!"access".equals(claims.getCategory())){
             response.getWriter().write("invalid access token");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setCharacterEncoding("UTF-8");
             return;
         }
-        // 기존 토큰 통과시 만드는 정보가 유저네임만 있고 userdetails의 세부정보를 반영못함,
-
-        String username = jwtUtil.getUserName(token);
-
-        // 2. ★ (가장 중요) CustomUserDetailsService를 사용하여 DB에서 실제 사용자 정보를 조회합니다.
-        //    이제 userDetails 객체 안에는 username, password(암호화된), role, nickname 등 모든 정보가 담겨 있습니다.
-        CustomUserDetails userDetails = (CustomUserDetails) customUserDetailsService.loadUserByUsername(username);
 
-        // 3. ★ (중요) DB에서 가져온 "진짜" 사용자 정보(userDetails)를 통째로 사용하여 인증 객체를 만듭니다.
+        // 권한은 토큰에 담긴 role 로 만듭니다. (요청마다 DB 에서 사용자를 다시 읽지 않음)
+        // 토큰은 role 과 함께 발급되고, 다시 로그인하거나 재발급 받으면 바뀐 role 이 반영됩니다.
         Authentication authToken = new UsernamePasswordAuthenticationToken(
-                username, // <--- 이 부분을 userDetails에서 username으로 변경!
+                claims.getUsername(),
                 null,
-                userDetails.getAuthorities());
+                List.of(new SimpleGrantedAuthority(claims.getRole())));
 
         // 4. 이 "진짜" 정보가 담긴 인증 객체를 SecurityContext에 저장합니다.
         SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -1,5 +1,6 @@
 package com.example.arirangtrail.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -29,6 +30,16 @@ public class JwtUtil {
                 .compact();
     }
 
+    // 한 번의 파싱/서명 검증으로 필요한 값을 모두 꺼냅니다. 만료된 토큰이면 ExpiredJwtException 이 발생합니다.
+    public JwtClaims parseClaims(String token) {
+        Claims claims = Jwts.parser().verifyWith(this.secretKey).build().parseSignedClaims(token).getPayload();
+        return new JwtClaims(
+                claims.get("category", String.class),
+                String.valueOf(claims.get("username")),
+                String.valueOf(claims.get("role")),
+                claims.getExpiration());
+    }
+
     public String getUserName(String token) {
         return Jwts.parser().verifyWith(this.secretKey).build().parseSignedClaims(token).getPayload().get("username").toString();
         //Jwts.parser(): 파싱을 위한 빌더 객체 생성
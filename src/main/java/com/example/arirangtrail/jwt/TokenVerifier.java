@@ -0,0 +1,170 @@
+package com.example.arirangtrail.jwt;
+
+import com.example.arirangtrail.component.user.UserProfileCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JwtFilter / StompHandler 가 함께 쓰는 토큰 검증기.
+ * 토큰을 한 번만 파싱해서 JwtClaims 로 만들고, 토큰 해시를 키로 만료 시각까지(최대 jwt.cache.ttl-seconds) 캐시합니다(LRU).
+ * 로그아웃한 토큰은 revoke 로 Redis 에 만료 시각까지 남기고, 같은 해시를 jwt.revoke.channel 로 발행해서
+ * 모든 서버가 자기 캐시에서 바로 지우게 합니다. 탈퇴한 사용자의 토큰은 UserProfileCache 로 존재 여부를 확인해서 거부합니다.
+ */
+@Slf4j
+@Component
+public class TokenVerifier implements MessageListener {
+    private static final String REVOKED_PREFIX = "jwt:revoked:";
+
+    private final JwtUtil jwtUtil;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final UserProfileCache userProfileCache;
+    private final String revokeChannel;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // 토큰 해시 -> (claims, 캐시 만료 시각). access-order LinkedHashMap 으로 LRU, 접근은 this 로 동기화합니다.
+    private final LinkedHashMap<String, CachedClaims> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public TokenVerifier(JwtUtil jwtUtil,
+                         RedisTemplate<String, String> redisTemplate,
+                         RedisMessageListenerContainer listenerContainer,
+                         UserProfileCache userProfileCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${jwt.revoke.channel:jwt:revoked}") String revokeChannel,
+                         @Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                         @Value("${jwt.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.userProfileCache = userProfileCache;
+        this.revokeChannel = revokeChannel;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > TokenVerifier.this.maxEntries;
+            }
+        };
+
+        this.hits = meterRegistry.counter("jwt.verify.cache", "result", "hit");
+        this.misses = meterRegistry.counter("jwt.verify.cache", "result", "miss");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(revokeChannel));
+    }
+
+    /**
+     * 서명/만료를 검증한 claims 를 반환합니다.
+     * 만료된 토큰은 ExpiredJwtException, 위조/형식 오류는 JwtException 을 그대로 던집니다. (기존 JwtUtil 과 동일)
+     * 로그아웃된 토큰이나 탈퇴한 사용자의 토큰은 SecurityException 을 던집니다.
+     */
+    public JwtClaims verify(String token) {
+        JwtClaims claims = verifyToken(token);
+        // 사용자 존재 여부는 프로필 캐시로 확인합니다. (탈퇴 시 UserDAO 가 invalidate)
+        if (userProfileCache.get(claims.getUsername()).isEmpty()) {
+            throw new SecurityException("존재하지 않는 사용자의 토큰입니다.");
+        }
+        return claims;
+    }
+
+    private JwtClaims verifyToken(String token) {
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        CachedClaims cached;
+        synchronized (this) {
+            cached = cache.get(key);
+            if (cached != null && cached.cachedUntil <= now) {
+                cache.remove(key);
+                cached = null;
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.claims;
+        }
+        misses.increment();
+
+        JwtClaims claims = jwtUtil.parseClaims(token); // 만료/위조면 여기서 예외
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_PREFIX + key))) {
+            throw new SecurityException("로그아웃된 토큰입니다.");
+        }
+
+        synchronized (this) {
+            cache.put(key, new CachedClaims(claims, Math.min(claims.getExpiration().getTime(), now + ttlMillis)));
+        }
+        return claims;
+    }
+
+    // 예외 없이 유효 여부만 확인합니다.
+    public boolean isValid(String token) {
+        try {
+            return !verify(token).isExpired();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // 로그아웃 시 호출합니다. 이미 만료되었거나 잘못된 토큰이면 할 일이 없습니다.
+    public void revoke(String token) {
+        String key = hash(token);
+        evict(key);
+        try {
+            JwtClaims claims = jwtUtil.parseClaims(token);
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            if (remainingMillis > 0) {
+                redisTemplate.opsForValue().set(REVOKED_PREFIX + key, claims.getUsername(), Duration.ofMillis(remainingMillis));
+                // 다른 서버의 캐시에서도 바로 지우도록 알립니다. (발행이 유실되어도 캐시 TTL 이 지나면 위 키로 거부됩니다)
+                redisTemplate.convertAndSend(revokeChannel, key);
+            }
+        } catch (Exception e) {
+            log.debug("무효화할 필요 없는 토큰: {}", e.getMessage());
+        }
+    }
+
+    // 다른 서버(또는 자기 자신)가 revoke 한 토큰 해시를 받아 캐시에서 지웁니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evict(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private synchronized void evict(String key) {
+        cache.remove(key);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CachedClaims(JwtClaims claims, long cachedUntil) {
+    }
+}
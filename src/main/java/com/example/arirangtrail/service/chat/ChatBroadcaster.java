@@ -0,0 +1,138 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * /sub/** 로 나가는 모든 프레임의 단일 출구.
+ * 이 서버에 구독 중인 세션에는 SimpleBroker 로 바로 전달하고, 같은 프레임을 Redis 채널(chat.relay.channel)에도
+ * 발행해서 다른 서버들이 각자 자기 쪽 구독자에게 전달하게 합니다. 자기 서버가 발행한 프레임은 nodeId 로 걸러 두 번 보내지 않습니다.
+ * 페이로드는 한 번만 JSON 으로 만들어 로컬 전달과 Redis 발행에 같이 씁니다.
+ */
+@Slf4j
+@Component
+public class ChatBroadcaster implements MessageListener {
+    private static final String ROOM_DESTINATION_PREFIX = "/sub/chat/room/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final RecentMessageCache recentMessageCache;
+    private final boolean relayEnabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter failures;
+
+    public ChatBroadcaster(SimpMessagingTemplate messagingTemplate,
+                           RedisTemplate<String, String> redisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           ObjectMapper objectMapper,
+                           RecentMessageCache recentMessageCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${chat.relay.enabled:true}") boolean relayEnabled,
+                           @Value("${chat.relay.channel:chat:relay}") String channel) {
+        this.messagingTemplate = messagingTemplate;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.recentMessageCache = recentMessageCache;
+        this.relayEnabled = relayEnabled;
+        this.channel = channel;
+
+        this.published = meterRegistry.counter("chat.relay.frames", "direction", "out");
+        this.received = meterRegistry.counter("chat.relay.frames", "direction", "in");
+        this.failures = meterRegistry.counter("chat.relay.failures");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (relayEnabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+            log.info("채팅 relay 구독 시작 - Channel: {}, Node: {}", channel, nodeId);
+        }
+    }
+
+    // destination 예: "/sub/chat/room/1", "/sub/user/{username}", "/sub/chat/lobby"
+    public void send(String destination, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("웹소켓 페이로드를 JSON 으로 변환할 수 없습니다: " + destination, e);
+        }
+
+        deliverLocally(destination, json);
+
+        if (relayEnabled) {
+            try {
+                ObjectNode envelope = objectMapper.createObjectNode();
+                envelope.put("nodeId", nodeId);
+                envelope.put("destination", destination);
+                envelope.set("payload", objectMapper.readTree(json));
+                redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(envelope));
+                published.increment();
+            } catch (Exception e) {
+                // 다른 서버로의 전파만 실패한 것이므로, 로컬 전달은 그대로 두고 기록만 남깁니다.
+                failures.increment();
+                log.error("채팅 relay 발행 실패 - Destination: {}, Error: {}", destination, e.getMessage());
+            }
+        }
+    }
+
+    // 다른 서버가 발행한 프레임을 이 서버의 구독자에게 전달합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JsonNode envelope = objectMapper.readTree(message.getBody());
+            if (nodeId.equals(envelope.path("nodeId").asText())) {
+                return;
+            }
+            received.increment();
+            String destination = envelope.path("destination").asText();
+            JsonNode payload = envelope.path("payload");
+            deliverLocally(destination, payload.toString());
+
+            // 다른 서버에서 저장된 채팅 메시지는 이 서버의 최근 메시지 캐시에도 넣습니다.
+            if (destination.startsWith(ROOM_DESTINATION_PREFIX) && payload.hasNonNull("messageSeq") && payload.hasNonNull("id")) {
+                recentMessageCache.append(objectMapper.treeToValue(payload, ChatMessage.class));
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.error("채팅 relay 수신 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    private void deliverLocally(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination,
+                MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+    }
+}
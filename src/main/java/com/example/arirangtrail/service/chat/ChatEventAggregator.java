@@ -0,0 +1,102 @@
+package com.example.arirangtrail.service.chat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ChatService 와 ChatBroadcaster 사이에서 개인 갱신 이벤트(안 읽은 수)를 모아두는 단계.
+ * 메시지마다 바로 보내지 않고 "변경된 유저"만 표시해 두었다가,
+ * 짧은 주기(chat.events.flush-interval-ms)마다 유저당 1건으로 합쳐서 보냅니다.
+ */
+@Slf4j
+@Component
+public class ChatEventAggregator {
+    private final UnreadCounterService unreadCounterService;
+    private final ChatBroadcaster chatBroadcaster;
+
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    // 메트릭: 들어온 이벤트 수 vs 실제로 보낸 프레임 수
+    private final Counter userEventsOffered;
+    private final Counter userFramesSent;
+
+    public ChatEventAggregator(UnreadCounterService unreadCounterService,
+                               ChatBroadcaster chatBroadcaster,
+                               MeterRegistry meterRegistry) {
+        this.unreadCounterService = unreadCounterService;
+        this.chatBroadcaster = chatBroadcaster;
+
+        this.userEventsOffered = meterRegistry.counter("chat.events.offered", "kind", "user");
+        this.userFramesSent = meterRegistry.counter("chat.events.sent", "kind", "user");
+
+        Gauge.builder("chat.events.pending", dirtyUsers, Set::size).tag("kind", "user").register(meterRegistry);
+        // 보낸 프레임 1건이 평균 몇 건의 이벤트를 대신했는지 (1.0 이면 합쳐진 것이 없음)
+        Gauge.builder("chat.events.coalescing.ratio", this, ChatEventAggregator::coalescingRatio)
+                .register(meterRegistry);
+    }
+
+    // 해당 유저의 "총 안 읽은 메시지 수"가 바뀌었음을 표시합니다.
+    public void markUserDirty(String username) {
+        userEventsOffered.increment();
+        dirtyUsers.add(username);
+    }
+
+    public void markUsersDirty(Collection<String> usernames) {
+        usernames.forEach(this::markUserDirty);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.events.flush-interval-ms:150}")
+    public void flush() {
+        try {
+            flushUsers();
+        } catch (Exception e) {
+            // 한 번 실패해도 다음 주기에 다시 시도되도록 스케줄러 스레드는 살려둡니다.
+            log.error("채팅 이벤트 flush 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flushUsers() {
+        List<String> users = drain(dirtyUsers);
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<String, Map<Long, Long>> unreadByUser = unreadCounterService.getRoomUnreadCounts(users);
+        unreadByUser.forEach((username, unreadByRoom) -> {
+            long totalUnreadCount = unreadByRoom.values().stream().mapToLong(Long::longValue).sum();
+            // 총합과 함께 방별 안 읽은 수도 보내서, 로비 목록을 다시 받지 않고 숫자만 고칠 수 있게 합니다.
+            chatBroadcaster.send(
+                    "/sub/user/" + username,
+                    Map.of(
+                            "type", "TOTAL_UNREAD_COUNT_UPDATE",
+                            "totalUnreadCount", totalUnreadCount,
+                            "unreadByRoom", unreadByRoom
+                    )
+            );
+            userFramesSent.increment();
+        });
+    }
+
+    // 현재 쌓인 항목을 꺼내면서 지웁니다. 꺼내는 도중 새로 들어온 항목은 다음 주기에 나갑니다.
+    private static <T> List<T> drain(Set<T> source) {
+        List<T> drained = new ArrayList<>();
+        Iterator<T> iterator = source.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    private double coalescingRatio() {
+        double sent = userFramesSent.count();
+        double offered = userEventsOffered.count();
+        return sent == 0 ? 1.0 : offered / sent;
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatMessage;
+import com.example.arirangtrail.data.repository.chat.ChatMessageRepository;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * chat_messages 저장 담당.
+ * 기본(chat.message.write-behind.enabled=false)은 지금처럼 바로 save 하고,
+ * write-behind 모드에서는 방별 버퍼에 쌓아두었다가 전용 스레드가 개수/시간 기준으로 insertMany(bulk) 합니다.
+ * 종료 시(@PreDestroy)에는 남은 메시지를 모두 저장한 뒤 내려갑니다.
+ *
+ * 버퍼는 chat.message.write-behind.max-queued 건까지만 쌓고, 넘치면 그 메시지는 바로 save 합니다(호출 스레드가 기다림).
+ * 저장에 실패한 메시지는 다시 버퍼에 넣되 max-attempts 번을 넘기면 chat_messages_dead_letter 로 옮기고 포기합니다.
+ */
+@Slf4j
+@Component
+public class ChatMessageWriter {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String DEAD_LETTER_COLLECTION = "chat_messages_dead_letter";
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxQueued;
+    private final int maxAttempts;
+
+    // roomId -> 아직 저장되지 않은 메시지 (들어온 순서)
+    private final Map<Long, ConcurrentLinkedQueue<ChatMessage>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // 버퍼에서 꺼냈지만 아직 insert 가 끝나지 않은 메시지 (조회 시 빠지지 않도록)
+    private volatile List<ChatMessage> inFlight = Collections.emptyList();
+    // 메시지 id -> 실패한 저장 시도 횟수 (flusher 스레드에서만 접근)
+    private final Map<String, Integer> failedAttempts = new HashMap<>();
+    private ScheduledExecutorService flusher;
+
+    private final Timer flushTimer;
+    private final Counter flushedMessages;
+    private final Counter failedFlushes;
+    private final Counter overflowWrites;
+    private final Counter deadLettered;
+
+    public ChatMessageWriter(ChatMessageRepository chatMessageRepository,
+                             MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${chat.message.write-behind.enabled:false}") boolean writeBehind,
+                             @Value("${chat.message.write-behind.batch-size:200}") int batchSize,
+                             @Value("${chat.message.write-behind.flush-interval-ms:100}") long flushIntervalMs,
+                             @Value("${chat.message.write-behind.max-queued:10000}") int maxQueued,
+                             @Value("${chat.message.write-behind.max-attempts:5}") int maxAttempts) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxQueued = maxQueued;
+        this.maxAttempts = maxAttempts;
+
+        Gauge.builder("chat.messages.write_behind.queue", depth, AtomicInteger::get).register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("chat.messages.write_behind.flush");
+        this.flushedMessages = meterRegistry.counter("chat.messages.write_behind.flushed");
+        this.failedFlushes = meterRegistry.counter("chat.messages.write_behind.failures");
+        this.overflowWrites = meterRegistry.counter("chat.messages.write_behind.overflow");
+        this.deadLettered = meterRegistry.counter("chat.messages.write_behind.dead_lettered");
+    }
+
+    @PostConstruct
+    void start() {
+        if (!writeBehind) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-message-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("채팅 메시지 write-behind 모드 활성화 - batch: {}, interval: {}ms", batchSize, flushIntervalMs);
+    }
+
+    public void write(ChatMessage message) {
+        if (!writeBehind) {
+            chatMessageRepository.save(message);
+            return;
+        }
+        // 버퍼가 가득 차면(DB 가 느리거나 내려간 경우) 메모리를 더 쓰지 않고 호출 스레드에서 바로 저장합니다.
+        if (depth.get() >= maxQueued) {
+            overflowWrites.increment();
+            chatMessageRepository.save(message);
+            return;
+        }
+        // DB 에 들어가기 전에 방송되므로 id 를 미리 정해둡니다.
+        if (message.getId() == null) {
+            message.setId(new ObjectId().toHexString());
+        }
+        enqueue(message);
+
+        // 개수 기준을 넘으면 다음 주기를 기다리지 않고 바로 flush 를 요청합니다.
+        if (depth.incrementAndGet() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    // 아직 저장되지 않은 해당 방의 메시지 (최근 메시지 조회 시 합쳐서 보여주기 위함)
+    public List<ChatMessage> pendingMessages(Long roomId) {
+        List<ChatMessage> result = new ArrayList<>();
+        for (ChatMessage message : inFlight) {
+            if (roomId.equals(message.getRoomId())) {
+                result.add(message);
+            }
+        }
+        ConcurrentLinkedQueue<ChatMessage> queue = pending.get(roomId);
+        if (queue != null) {
+            result.addAll(queue);
+        }
+        return result;
+    }
+
+    // 방이 삭제되면 아직 저장되지 않은 메시지도 버립니다.
+    // flusher 스레드에서 실행해서, 이미 꺼내 insert 중인(inFlight) 배치가 끝난 뒤에 버리도록 합니다.
+    // 그래야 호출한 쪽이 이어서 deleteByRoomId 를 했을 때 늦게 들어간 메시지가 남지 않습니다.
+    public void discard(Long roomId) {
+        if (!writeBehind) {
+            return;
+        }
+        try {
+            flusher.submit(() -> removePending(roomId)).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            removePending(roomId);
+        } catch (RejectedExecutionException | ExecutionException | TimeoutException e) {
+            log.warn("flusher 에서 방 메시지를 버리지 못해 직접 지웁니다 - Room: {}, Reason: {}", roomId, e.toString());
+            removePending(roomId);
+        }
+    }
+
+    private void removePending(Long roomId) {
+        ConcurrentLinkedQueue<ChatMessage> queue = pending.remove(roomId);
+        if (queue != null) {
+            depth.addAndGet(-queue.size());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 메시지를 모두 저장합니다. 저장이 계속 실패하면 로그를 남기고 포기합니다.
+        for (int attempt = 0; attempt < 3 && depth.get() > 0; attempt++) {
+            flushQuietly();
+        }
+        if (depth.get() > 0) {
+            log.error("종료 시 저장하지 못한 채팅 메시지 {}건", depth.get());
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            while (depth.get() > 0) {
+                if (flushBatch() == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.error("채팅 메시지 flush 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    // 방별 버퍼에서 최대 batchSize 건을 꺼내 한 번의 bulk insert 로 저장합니다.
+    private int flushBatch() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        for (Long roomId : new ArrayList<>(pending.keySet())) {
+            // 빈 버퍼는 enqueue 와 같은 잠금(compute) 안에서만 지워서 새로 들어온 메시지를 잃지 않게 합니다.
+            pending.computeIfPresent(roomId, (key, queue) -> {
+                ChatMessage message;
+                while (batch.size() < batchSize && (message = queue.poll()) != null) {
+                    batch.add(message);
+                }
+                return queue.isEmpty() ? null : queue;
+            });
+            if (batch.size() >= batchSize) {
+                break;
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        inFlight = batch;
+        depth.addAndGet(-batch.size());
+
+        Timer.Sample sample = Timer.start();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class)
+                    .insert(batch)
+                    .execute();
+            flushedMessages.increment(batch.size());
+            clearAttempts(batch);
+        } catch (BulkOperationException e) {
+            requeueFailed(batch, e.getErrors());
+            throw e;
+        } catch (RuntimeException e) {
+            requeue(batch);
+            throw e;
+        } finally {
+            inFlight = Collections.emptyList();
+            sample.stop(flushTimer);
+        }
+        return batch.size();
+    }
+
+    // 이미 들어간(중복 키) 메시지를 제외하고 실패한 것만 다시 버퍼에 넣습니다.
+    private void requeueFailed(List<ChatMessage> batch, List<BulkWriteError> errors) {
+        List<ChatMessage> retry = new ArrayList<>();
+        for (BulkWriteError error : errors) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                retry.add(batch.get(error.getIndex()));
+            }
+        }
+        clearAttempts(batch);
+        requeue(retry);
+    }
+
+    // 실패 횟수가 maxAttempts 에 닿은 메시지는 다시 넣지 않고 dead letter 로 보냅니다.
+    private void requeue(List<ChatMessage> messages) {
+        int requeued = 0;
+        for (ChatMessage message : messages) {
+            int attempts = failedAttempts.merge(message.getId(), 1, Integer::sum);
+            if (attempts >= maxAttempts) {
+                failedAttempts.remove(message.getId());
+                deadLetter(message);
+            } else {
+                enqueue(message);
+                requeued++;
+            }
+        }
+        depth.addAndGet(requeued);
+    }
+
+    private void clearAttempts(List<ChatMessage> batch) {
+        if (!failedAttempts.isEmpty()) {
+            batch.forEach(message -> failedAttempts.remove(message.getId()));
+        }
+    }
+
+    // 따로 모아두고 운영자가 확인하도록 합니다. 그것마저 실패하면 내용을 로그로 남깁니다.
+    private void deadLetter(ChatMessage message) {
+        deadLettered.increment();
+        try {
+            mongoTemplate.insert(message, DEAD_LETTER_COLLECTION);
+            log.error("저장에 {}번 실패한 채팅 메시지를 {} 로 옮겼습니다 - Room: {}, Seq: {}",
+                    maxAttempts, DEAD_LETTER_COLLECTION, message.getRoomId(), message.getMessageSeq());
+        } catch (RuntimeException e) {
+            log.error("채팅 메시지를 저장하지 못해 버립니다 - Room: {}, Seq: {}, Sender: {}, Message: {}",
+                    message.getRoomId(), message.getMessageSeq(), message.getSender(), message.getMessage(), e);
+        }
+    }
+
+    private void enqueue(ChatMessage message) {
+        pending.compute(message.getRoomId(), (roomId, queue) -> {
+            ConcurrentLinkedQueue<ChatMessage> target = queue != null ? queue : new ConcurrentLinkedQueue<>();
+            target.add(message);
+            return target;
+        });
+    }
+}
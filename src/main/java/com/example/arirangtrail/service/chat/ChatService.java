@@ -8,6 +8,7 @@ import com.example.arirangtrail.data.dto.chat.chatRoom.ChatRoomListDTO;
 import com.example.arirangtrail.data.dto.chat.chatRoom.CreateRoomDTO;
 import com.example.arirangtrail.data.dto.chat.chatRoom.ParticipantDTO;
 import com.example.arirangtrail.data.dto.chat.message.ChatMessageDTO;
+import com.example.arirangtrail.data.dto.chat.message.ChatMessageSliceDTO;
 import com.example.arirangtrail.data.dto.chat.message.UnreadUpdateDTO;
 import com.example.arirangtrail.data.repository.chat.ChatMessageRepository;
 import com.example.arirangtrail.data.repository.chat.ChatRoomRepository;
@@ -16,12 +17,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query; // ★★★ 1. 올바른 Query 클래스를 import 합니다.
 import org.springframework.data.mongodb.core.query.Update;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // ★★★ 2. Spring의 Transactional을 사용하는 것이 좋습니다.
 
@@ -38,46 +41,33 @@ public class ChatService {
     private final SequenceService sequenceService;
     private final UserChatStatusRepository userChatStatusRepository;
     private final MongoTemplate mongoTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBroadcaster chatBroadcaster;
+    private final UnreadCounterService unreadCounterService;
+    private final ChatEventAggregator chatEventAggregator;
+    private final LobbySnapshotService lobbySnapshotService;
+    private final LobbyEventPublisher lobbyEventPublisher;
+    private final ChatMessageWriter chatMessageWriter;
+    private final RecentMessageCache recentMessageCache;
+    private final ReadReceiptAggregator readReceiptAggregator;
+    private final ParticipantCountBackfill participantCountBackfill;
 
     // 모든 채팅방 찾기
 // ✅ 수정: '누가' 요청했는지 알기 위해 username 파라미터를 받도록 변경
     public List<ChatRoomListDTO> findAllRoom(String currentUsername) {
-        List<ChatRoom> rooms = chatRoomRepository.findAll();
-
-        return rooms.stream()
-                .map(room -> {
-                    long participantCount = userChatStatusRepository.countByRoomId(room.getId());
-
-                    // ✅ 수정: 현재 사용자의 이 방에 대한 안 읽은 메시지 개수 계산
-                    long unreadCount = userChatStatusRepository.findByRoomIdAndUsername(room.getId(), currentUsername)
-                            .map(status -> {
-                                long totalMessages = chatMessageRepository.countByRoomId(room.getId());
-                                long lastReadSeq = status.getLastReadMessageSeq();
-                                return Math.max(0, totalMessages - lastReadSeq);
-                            })
-                            .orElse(0L); // 참여 기록이 없으면 안 읽은 메시지는 0개
-
-                    return new ChatRoomListDTO(
-                            room.getId(),
-                            room.getTitle(),
-                            room.getSubject(),
-                            room.getCreator(),
-                            room.getMeetingDate(),
-                            participantCount,
-                            room.getMaxParticipants(),
-                            unreadCount,
-                            room.getCreatorNickname()   // 닉네임
-                    );
-                })
-                .collect(Collectors.toList());
+        // 공통 방 목록은 로비 버전이 바뀔 때만 다시 만들고, 요청자의 안 읽은 수만 덧씌웁니다.
+        return lobbySnapshotService.getLobby(currentUsername).getRooms();
+    }
+
+    // 로비 버전/ETag 와 함께 반환 (GET /api/chat/rooms 조건부 요청용)
+    public LobbySnapshotService.LobbyView findLobby(String currentUsername) {
+        return lobbySnapshotService.getLobby(currentUsername);
     }
     // 특정 채팅방 찾기 (ID 타입을 Long으로 통일)
     public ChatRoomDetailDTO findRoomDetailsById(Long roomId) {
         ChatRoom room = chatRoomRepository.findById(roomId)
                 .orElseThrow(() -> new IllegalArgumentException("..."));
 
-        Long currentParticipantCount = userChatStatusRepository.countByRoomId(roomId);
+        Long currentParticipantCount = room.getParticipantCount();
 
         // DTO를 생성해서 반환
         ChatRoomDetailDTO dto = new ChatRoomDetailDTO();
@@ -114,9 +104,10 @@ public class ChatService {
         newRoom.setMaxParticipants(createRoomDTO.getMaxParticipants());
         newRoom.setNotice("");
         newRoom.setLastMessageSeq(0L);
+        newRoom.setParticipantCount(1L); // 방장
         newRoom.setCreatedAt(LocalDateTime.now());
         newRoom.setUpdatedAt(LocalDateTime.now());
-        chatRoomRepository.save(newRoom);
+        chatRoomRepository.insert(newRoom);
 
         // 3. 방 생성자의 참여 상태 정보도 함께 저장
         UserChatStatus status = new UserChatStatus();
@@ -126,9 +117,10 @@ public class ChatService {
         status.setLastReadMessageSeq(0L);
         status.setLastReadAt(LocalDateTime.now());
         userChatStatusRepository.save(status);
+        unreadCounterService.onJoin(roomId, createRoomDTO.getUsername(), 0L, 0L);
 
-        // ✨로직이 성공적으로 끝난 후, 로비 구독자들에게 업데이트 신호를 보낸다.
-        messagingTemplate.convertAndSend("/sub/chat/lobby", "update");
+        // ✨로직이 성공적으로 끝난 후, 로비 구독자들에게 새 방 정보를 보낸다.
+        lobbyEventPublisher.roomCreated(newRoom, 1L);
 
         return newRoom;
     }
@@ -136,8 +128,8 @@ public class ChatService {
     // 채팅 메시지 저장
     @Transactional
     public ChatMessage saveMessage(ChatMessageDTO messageDTO) {
-        // 1. 해당 채팅방의 lastMessageSeq를 1 증가시키고, 증가된 값을 가져온다.
-        long nextSeq = getNextMessageSeqForRoom(messageDTO.getRoomId());
+        // 1. 해당 채팅방의 다음 메시지 seq를 가져온다. (방 문서의 lastMessageSeq 를 원자적으로 1 올림)
+        long nextSeq = sequenceService.nextMessageSeq(messageDTO.getRoomId());
 
         // 2. DTO를 실제 DB에 저장될 ChatMessage 엔티티로 변환
         ChatMessage chatMessage = new ChatMessage();
@@ -149,16 +141,17 @@ public class ChatService {
         chatMessage.setMessageType(messageDTO.getType().name());
         chatMessage.setTimestamp(LocalDateTime.now());
 
-        // 3. 변환된 메시지를 DB에 저장
-        chatMessageRepository.save(chatMessage); // ✅ 여기서 return 하지 않습니다.
+        // 3. 변환된 메시지를 DB에 저장 (write-behind 모드면 버퍼에 넣고 바로 다음으로 진행)
+        chatMessageWriter.write(chatMessage); // ✅ 여기서 return 하지 않습니다.
+        recentMessageCache.append(chatMessage);
 
         // ✅ 추가: ENTER/LEAVE 메시지일 때 실시간 참여자 수 브로드캐스트
         if ("ENTER".equals(messageDTO.getType().name()) || "LEAVE".equals(messageDTO.getType().name())) {
-            // 현재 실제 참여자 수를 다시 계산
-            long currentParticipantCount = userChatStatusRepository.countByRoomId(messageDTO.getRoomId());
+            // 현재 참여자 수 (ChatRoom 에 유지되는 값)
+            long currentParticipantCount = currentParticipantCount(messageDTO.getRoomId());
 
             // 해당 방의 모든 구독자에게 정확한 참여자 수 전송
-            messagingTemplate.convertAndSend(
+            chatBroadcaster.send(
                     "/sub/chat/room/" + messageDTO.getRoomId(),
                     Map.of(
                             "type", "PARTICIPANT_COUNT_UPDATE",
@@ -170,122 +163,40 @@ public class ChatService {
 
         // 4. 이 방에 참여하고 있는 모든 유저의 참여 상태를 가져옵니다.
         List<UserChatStatus> participants = userChatStatusRepository.findByRoomId(messageDTO.getRoomId());
+        List<String> participantUsernames = participants.stream()
+                .map(UserChatStatus::getUsername)
+                .collect(Collectors.toList());
 
-        // 5. 메시지를 보낸 사람을 제외한 다른 모든 참여자에게 알림을 보냅니다.
-        // 수정: 메세지를 나를 포함한 모든 참여자에게 알림을 보내도록 합니다
-        participants.stream()
-//                .filter(status -> !status.getUsername().equals(messageDTO.getSender()))
-                .forEach(recipientStatus -> {
-                    String recipientUsername = recipientStatus.getUsername();
-
-                    // 5-1. 받는 사람의 총 안 읽은 메시지 개수를 다시 계산합니다.
-                    long totalUnreadCount = getTotalUnreadCount(recipientUsername);
-
-                    // 5-2. "총 안 읽은 메시지 개수"를 해당 유저의 개인 채널로 보냅니다.
-                    messagingTemplate.convertAndSend(
-                            "/sub/user/" + recipientUsername,
-                            Map.of(
-                                    "type", "TOTAL_UNREAD_COUNT_UPDATE",
-                                    "totalUnreadCount", totalUnreadCount
-                            )
-                    );
-                });
-
-        // 6. 로비에 있는 모든 사람에게 "어떤 방"에 새 메시지가 왔는지 알려줍니다.
-        messagingTemplate.convertAndSend(
-                "/sub/chat/lobby",
-                Map.of(
-                        "type", "LOBBY_ROOM_UPDATE",
-                        "roomId", messageDTO.getRoomId()
-                )
-        );
+        // 5. 참여자 전원의 안 읽은 메시지 카운터를 1씩 올립니다. (방 전체를 다시 세지 않습니다)
+        unreadCounterService.onMessage(messageDTO.getRoomId(), nextSeq, participantUsernames);
+
+        // 6. 나를 포함한 모든 참여자의 "총 안 읽은 메시지 개수" 알림을 예약합니다.
+        //    바로 보내지 않고 ChatEventAggregator가 다음 주기에 유저당 1건으로 합쳐서 보냅니다.
+        //    (로비에는 알리지 않습니다. 로비 목록에 보이는 것은 방별 안 읽은 수뿐이고, 그건 위의 개인 알림에 들어 있습니다)
+        chatEventAggregator.markUsersDirty(participantUsernames);
 
         // 7. ✅ 모든 작업이 끝난 후, 저장된 메시지 객체를 반환합니다.
         return chatMessage;
     }
 
-    /**
-     * 특정 방의 메시지 시퀀스를 안전하게 증가시키고 반환하는 헬퍼 메소드
-     */
-    private long getNextMessageSeqForRoom(Long roomId) {
-        // ChatRoom 엔티티에서 ID 필드 이름이 'id'이므로, 'id'로 조회합니다.
-        // MongoDB의 실제 필드명인 '_id'로 조회해도 Spring Data가 알아서 매핑해줍니다.
-        Query query = new Query(Criteria.where("id").is(roomId));
-        Update update = new Update().inc("lastMessageSeq", 1);
-        FindAndModifyOptions options = new FindAndModifyOptions().returnNew(true);
-
-        ChatRoom updatedRoom = mongoTemplate.findAndModify(query, update, options, ChatRoom.class);
-
-        if (updatedRoom == null) {
-            throw new IllegalArgumentException("시퀀스를 생성할 채팅방을 찾을 수 없습니다. ID: " + roomId);
-        }
-        return updatedRoom.getLastMessageSeq();
-    }
-
     // userchatsatus의 seq를 변경
-    @Transactional
+    // 스크롤 중에 자주 호출되므로 바로 쓰지 않고, (방, 유저)별 최대 seq 만 모아서 주기적으로 한꺼번에 반영합니다.
     public void updateUserChatStatus(Long roomId, String username, long lastReadSeq) {
-        // 디버그용 추가 기록
-        log.info(">>>>> [읽음 상태 업데이트 요청] Room: {}, User: {}, Seq: {}", roomId, username, lastReadSeq);
-
-        Query query = new Query(Criteria.where("roomId").is(roomId).and("username").is(username));
-
-        // 디버그용 추가 기록2
-        UserChatStatus existingStatus = mongoTemplate.findOne(query, UserChatStatus.class);
-
-        if (existingStatus == null) {
-            log.warn(">>>>> [업데이트 중단] UserChatStatus가 존재하지 않음 - Room: {}, User: {}", roomId, username);
-            return;
-        }
-
-        log.info(">>>>> [읽음 상태 업데이트 실행] Room: {}, User: {}, 기존 Seq: {} -> 새 Seq: {}",
-                roomId, username, existingStatus.getLastReadMessageSeq(), lastReadSeq);
-
-
-        Update update = new Update()
-                .set("lastReadMessageSeq", lastReadSeq)
-                .set("lastReadAt", LocalDateTime.now())
-                .setOnInsert("roomId", roomId) // 새로 생성될 때만 적용
-                .setOnInsert("username", username); // 새로 생성될 때만 적용
-
-        mongoTemplate.upsert(query, update, UserChatStatus.class);
-
-//        // --- ✨ 2. 기존의 안 읽은 메시지 개수 계산 및 전송 로직은 그대로 유지합니다 ---
-//        long totalMessageCount = chatMessageRepository.countByRoomId(roomId);
-//        long unreadCount = totalMessageCount - lastReadSeq;
-//        if (unreadCount < 0) unreadCount = 0;
-//
-//        UnreadUpdateDTO updateInfo = new UnreadUpdateDTO(roomId, unreadCount);
-//        messagingTemplate.convertAndSend("/sub/user/" + username, updateInfo);
-        // 1. "나의 총 안 읽은 메시지 수"를 다시 계산합니다.
-        long totalUnreadCount = getTotalUnreadCount(username);
-
-        // 2. 계산된 "총 안 읽은 메시지 수"를 해당 유저의 개인 채널로 보냅니다.
-        //    리액트의 WebSocketManager가 이 메시지를 기다리고 있습니다.
-        log.info(">>>>> [개인 알림] User: {}의 총 안 읽은 메시지 수({})를 /sub/user/{}로 전송합니다.", username, totalUnreadCount, username);
-        messagingTemplate.convertAndSend(
-                "/sub/user/" + username,
-                Map.of(
-                        "type", "TOTAL_UNREAD_COUNT_UPDATE",
-                        "totalUnreadCount", totalUnreadCount
-                )
-        );
-
-        // 3. "채팅방 목록에 변화가 생겼으니 갱신하라"는 신호를 로비 채널로 보냅니다.
-        //    플러터의 ChatRoomListScreen이 이 메시지를 기다려야 합니다.
-        log.info(">>>>> [로비 업데이트] Room: {}의 정보 변경 신호를 /sub/chat/lobby로 전송합니다.", roomId);
-        messagingTemplate.convertAndSend(
-                "/sub/chat/lobby",
-                Map.of(
-                        "type", "LOBBY_ROOM_UPDATE",
-                        "roomId", roomId, // 어떤 방이 변경되었는지 알려주면 더 좋습니다.
-                        "updatedBy", username
-                )
-        );
+        log.debug(">>>>> [읽음 상태 업데이트 요청] Room: {}, User: {}, Seq: {}", roomId, username, lastReadSeq);
+        // 반영 시 "나의 총/방별 안 읽은 메시지 수"가 개인 채널(/sub/user/{username})로 유저당 1건씩 나갑니다.
+        // 읽음 처리는 다른 사람의 로비에는 영향이 없으므로 로비 채널로는 보내지 않습니다.
+        readReceiptAggregator.offer(roomId, username, lastReadSeq);
     }
 
     // 해당 방의 이전 메세지들을 가져옴
     public List<ChatMessage> getPreviousMessages(Long roomId, Pageable pageable) {
+        // 가장 최근 페이지는 대부분 캐시에 있으므로 Mongo 까지 가지 않습니다.
+        if (pageable.getPageNumber() == 0) {
+            Optional<List<ChatMessage>> cached = recentMessageCache.latest(roomId, pageable.getPageSize());
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
         // Repository를 호출하여 페이징된 결과를 가져옵니다.
         Page<ChatMessage> messagePage = chatMessageRepository.findByRoomIdOrderByMessageSeqDesc(roomId, pageable);
 
@@ -294,45 +205,132 @@ public class ChatService {
         List<ChatMessage> messages = new ArrayList<>(messagePage.getContent());
         Collections.reverse(messages);
 
+        // write-behind 모드에서 아직 DB에 들어가지 않은 최신 메시지를 첫 페이지에 합쳐줍니다.
+        List<ChatMessage> pendingMessages = chatMessageWriter.pendingMessages(roomId);
+        if (pageable.getPageNumber() == 0 && !pendingMessages.isEmpty()) {
+            Map<String, ChatMessage> merged = new LinkedHashMap<>();
+            messages.forEach(message -> merged.put(message.getId(), message));
+            pendingMessages.forEach(message -> merged.put(message.getId(), message));
+            messages = merged.values().stream()
+                    .sorted(Comparator.comparing(ChatMessage::getMessageSeq))
+                    .collect(Collectors.toList());
+            if (messages.size() > pageable.getPageSize()) {
+                messages = messages.subList(messages.size() - pageable.getPageSize(), messages.size());
+            }
+        }
+
         return messages;
     }
 
+    // seq 커서 기반 대화 내역. beforeSeq 가 있으면 그보다 과거를, afterSeq 가 있으면 그 이후를 size 건 가져옵니다.
+    // (roomId, messageSeq) 인덱스 범위만 읽으므로 얼마나 과거로 가든 비용이 같습니다.
+    public ChatMessageSliceDTO getMessageSlice(Long roomId, Long beforeSeq, Long afterSeq, int size) {
+        boolean backward = afterSeq == null;
+
+        // 캐시가 보장하는 범위 안이면 바로 응답합니다. (재접속 시 afterSeq 따라잡기 포함)
+        Optional<List<ChatMessage>> cached = !backward
+                ? recentMessageCache.after(roomId, afterSeq, size + 1)
+                : beforeSeq != null
+                ? recentMessageCache.before(roomId, beforeSeq, size + 1)
+                : recentMessageCache.latest(roomId, size + 1);
+        if (cached.isPresent()) {
+            return toSlice(cached.get(), backward, size, afterSeq);
+        }
+
+        Criteria criteria = Criteria.where("roomId").is(roomId);
+        if (backward && beforeSeq != null) {
+            criteria = criteria.and("messageSeq").lt(beforeSeq);
+        } else if (!backward) {
+            criteria = criteria.and("messageSeq").gt(afterSeq);
+        }
+
+        // 한 건 더 읽어서 다음 페이지가 있는지 판단합니다.
+        Query query = new Query(criteria)
+                .with(Sort.by(backward ? Sort.Direction.DESC : Sort.Direction.ASC, "messageSeq"))
+                .limit(size + 1);
+        query.fields().exclude("_class");
+        List<ChatMessage> fetched = mongoTemplate.find(query, ChatMessage.class);
+
+        // write-behind 버퍼에 남은 같은 범위의 메시지도 합칩니다.
+        Map<String, ChatMessage> merged = new LinkedHashMap<>();
+        fetched.forEach(message -> merged.put(message.getId(), message));
+        for (ChatMessage pending : chatMessageWriter.pendingMessages(roomId)) {
+            long seq = pending.getMessageSeq();
+            boolean inRange = backward ? (beforeSeq == null || seq < beforeSeq) : seq > afterSeq;
+            if (inRange) {
+                merged.put(pending.getId(), pending);
+            }
+        }
+        List<ChatMessage> messages = merged.values().stream()
+                .sorted(Comparator.comparing(ChatMessage::getMessageSeq))
+                .collect(Collectors.toList());
+        return toSlice(messages, backward, size, afterSeq);
+    }
+
+    // 오름차순으로 정렬된 최대 size+1 건을 잘라서 커서와 함께 돌려줍니다.
+    private ChatMessageSliceDTO toSlice(List<ChatMessage> messages, boolean backward, int size, Long afterSeq) {
+        boolean hasMore = messages.size() > size;
+        if (hasMore) {
+            messages = backward
+                    ? messages.subList(messages.size() - size, messages.size())
+                    : messages.subList(0, size);
+        }
+
+        Long nextBeforeSeq = null;
+        Long nextAfterSeq = null;
+        if (!messages.isEmpty()) {
+            if (backward && hasMore) {
+                nextBeforeSeq = messages.get(0).getMessageSeq();
+            }
+            // 이후 방향은 끝에 도달해도 마지막 seq 를 돌려줘서, 새 메시지가 생기면 이어서 받을 수 있게 합니다.
+            nextAfterSeq = messages.get(messages.size() - 1).getMessageSeq();
+        } else if (!backward) {
+            nextAfterSeq = afterSeq;
+        }
+        return new ChatMessageSliceDTO(new ArrayList<>(messages), nextBeforeSeq, nextAfterSeq);
+    }
+
     //방 떠나기
     @Transactional
     public void leaveRoom(Long roomId, String username) {
-        // 1. 나가려는 사용자의 참여 정보가 실제로 존재하는지 확인합니다.
-        Optional<UserChatStatus> userStatusOpt = userChatStatusRepository.findByRoomIdAndUsername(roomId, username);
-
-        // 2. 만약 참여 정보가 없다면, 아무 작업도 하지 않고 로그만 남기고 종료합니다.
-        if (userStatusOpt.isEmpty()) {
+        // 1. 참여 정보를 지웁니다. 실제로 지워진 경우에만 자리를 반납하므로 중복 요청에도 인원이 두 번 빠지지 않습니다.
+        if (!removeMembership(roomId, username)) {
+            // 2. 만약 참여 정보가 없다면, 아무 작업도 하지 않고 로그만 남기고 종료합니다.
             log.warn(">>>>> [채팅방 나가기 실패] User: {}는 Room: {}에 참여하고 있지 않습니다.", username, roomId);
             return;
         }
+        unreadCounterService.onLeave(roomId, List.of(username));
 
-        // 3. 참여 정보가 존재하면, 현재 방에 몇 명이 있는지 확인합니다.
-        long totalUsersInRoom = userChatStatusRepository.countByRoomId(roomId);
+        // 3. 자리를 반납하고 남은 인원을 받아옵니다.
+        long remainingUsers = releaseSeat(roomId);
 
-        // 4. 그 사람이 유일한 참여자일 경우 (1명일 때)
-        if (totalUsersInRoom == 1) {
+        // 4. 그 사람이 유일한 참여자였을 경우
+        if (remainingUsers == 0) {
             log.info(">>>>> [마지막 참여자 퇴장] User: {}가 마지막 참여자이므로 Room: {}와 모든 관련 데이터를 삭제합니다.", username, roomId);
             // 방과 관련된 모든 데이터를 삭제하는 헬퍼 메소드 호출
             deleteRoomAndAssociatedData(roomId);
+            // 5. ✨ 로비 구독자들에게 방이 사라졌음을 알립니다.
+            lobbyEventPublisher.roomDeleted(roomId);
         }
-        // 5. 다른 참여자가 더 있는 경우
+        // 다른 참여자가 더 있는 경우
         else {
-            log.info(">>>>> [일반 참여자 퇴장] User: {}의 참여 정보만 Room: {}에서 삭제합니다.", username, roomId);
-            // 해당 사용자의 참여 정보만 삭제합니다.
-            userChatStatusRepository.delete(userStatusOpt.get());
+            log.info(">>>>> [일반 참여자 퇴장] User: {}의 참여 정보만 Room: {}에서 삭제했습니다.", username, roomId);
+            // 6. ✨ 로비 구독자들에게 바뀐 참여자 수를 알립니다.
+            lobbyEventPublisher.roomChanged(roomId, remainingUsers);
         }
-
-        // 6. ✨ 모든 로직이 성공적으로 끝난 후, 로비 구독자들에게 업데이트 신호를 보냅니다.
-        log.info(">>>>> [로비 업데이트] Room: {}의 정보 변경 신호를 /sub/chat/lobby로 전송합니다.", roomId);
-        messagingTemplate.convertAndSend("/sub/chat/lobby", "update");
     }
 
     // (Step 2 & 3 연계) 방과 관련된 모든 데이터를 삭제하는 private 헬퍼 메소드
     private void deleteRoomAndAssociatedData(Long roomId) {
+        // 0. 참여자들의 안 읽은 메시지 카운터에서 이 방을 먼저 제거합니다.
+        List<String> participantUsernames = userChatStatusRepository.findByRoomId(roomId).stream()
+                .map(UserChatStatus::getUsername)
+                .collect(Collectors.toList());
+        unreadCounterService.onLeave(roomId, participantUsernames);
+        unreadCounterService.onRoomDeleted(roomId);
         // 1. 해당 방의 모든 채팅 메시지를 삭제합니다.->chat_messages
+        chatMessageWriter.discard(roomId);
+        recentMessageCache.evict(roomId);
         chatMessageRepository.deleteByRoomId(roomId);
         // 2. 해당 방의 모든 참여자 상태 정보를 삭제합니다. (이미 0명이겠지만, 안전을 위해)
         userChatStatusRepository.deleteByRoomId(roomId);
@@ -355,8 +353,8 @@ public class ChatService {
         // 3. 방장인 것이 확인되면, 위에서 만든 헬퍼 메소드를 호출하여 모든 데이터를 삭제합니다.
         deleteRoomAndAssociatedData(roomId);
 
-        // ✨로직이 성공적으로 끝난 후, 로비 구독자들에게 업데이트 신호를 보낸다.
-        messagingTemplate.convertAndSend("/sub/chat/lobby", "update");
+        // ✨로직이 성공적으로 끝난 후, 로비 구독자들에게 방이 사라졌음을 알린다.
+        lobbyEventPublisher.roomDeleted(roomId);
     }
 
     public List<Long> findMyRoomIdsByUsername(String username) {
@@ -369,55 +367,62 @@ public class ChatService {
     }
     //안 읽은 메세지 로직
     public long getTotalUnreadCount(String username) {
-        // 1. 해당 유저가 참여한 모든 방의 '참여 기록'을 가져옵니다.
-        List<UserChatStatus> statuses = userChatStatusRepository.findByUsername(username);
-
-        // 2. 참여한 방이 없으면, 안 읽은 메시지도 0개입니다.
-        if (statuses.isEmpty()) {
-            return 0;
-        }
-
-        // 3. 각 방의 안 읽은 메시지 수를 계산하여 모두 합산합니다.
-        return statuses.stream()
-                .mapToLong(status -> {
-                    // 4. 해당 방의 전체 메시지 개수를 셉니다.
-                    long totalMessages = chatMessageRepository.countByRoomId(status.getRoomId());
-                    // 5. (전체 메시지 수) - (내가 마지막으로 읽은 메시지 번호) = 이 방의 안 읽은 개수
-                    long unreadCount = totalMessages - status.getLastReadMessageSeq();
-                    // 6. 음수가 나오지 않도록 0 미만은 0으로 처리합니다.
-                    return Math.max(0, unreadCount);
-                })
-                .sum(); // 7. 모든 방의 안 읽은 개수를 더하여 최종 결과를 반환합니다.
+        // 메시지 저장/읽음 처리 때마다 증분으로 갱신되는 카운터 값을 그대로 반환합니다.
+        // (카운터가 비어 있으면 UnreadCounterService가 Mongo 기준으로 한 번 다시 계산합니다)
+        return unreadCounterService.getTotalUnreadCount(username);
     }
 
     @Transactional
     public void joinRoom(Long roomId, String username, String nickname) {
-        ChatRoom room = chatRoomRepository.findById(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 채팅방입니다."));
-
-        // (밴 목록 확인 로직은 여기에...)
-        if (room.getBannedUsernames() != null && room.getBannedUsernames().contains(username)) {
-            throw new SecurityException("이 채팅방에 접근할 권한이 없습니다.");
+        // 1. 참여 정보를 먼저 insert 합니다. (roomId, username) 유니크 인덱스가 있으므로 이미 멤버면 여기서 걸러집니다.
+        UserChatStatus status = new UserChatStatus(roomId, username, nickname);
+        status.setLastReadMessageSeq(0L); // 처음 들어오므로 0
+        try {
+            userChatStatusRepository.insert(status);
+        } catch (DuplicateKeyException e) {
+            // 멤버 목록에 이미 포함된 사람이 다시 들어오는 경우는 정원과 무관하게 통과
+            return;
         }
 
-        // ✅ [핵심 추가] 정원 제한 로직
-        long currentParticipantCount = userChatStatusRepository.countByRoomId(roomId);
-        // 멤버 목록에 이미 포함된 사람이 다시 들어오는 경우는 제외하고 계산해야 합니다.
-        boolean isAlreadyMember = userChatStatusRepository.existsByRoomIdAndUsername(roomId, username);
+        // 2. ✅ [핵심] 정원 제한: "밴 목록에 없고 참여자 수 < 정원" 인 경우에만 참여자 수를 1 올립니다. (한 번의 조건부 update)
+        ChatRoom reserved = reserveSeat(roomId, username);
+        if (reserved == null && !mongoTemplate.exists(
+                new Query(Criteria.where("id").is(roomId).and("participantCount").exists(true)), ChatRoom.class)) {
+            // participantCount 가 아직 없는 예전 방이면 먼저 채우고 다시 시도합니다.
+            participantCountBackfill.backfillRoom(roomId, username);
+            reserved = reserveSeat(roomId, username);
+        }
 
-        if (!isAlreadyMember && currentParticipantCount >= room.getMaxParticipants()) {
+        if (reserved == null) {
+            // 자리를 얻지 못했으므로 방금 넣은 참여 정보를 되돌리고, 이유를 확인해서 알려줍니다.
+            userChatStatusRepository.delete(status);
+            ChatRoom room = chatRoomRepository.findById(roomId)
+                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 채팅방입니다."));
+            if (room.getBannedUsernames() != null && room.getBannedUsernames().contains(username)) {
+                throw new SecurityException("이 채팅방에 접근할 권한이 없습니다.");
+            }
             throw new IllegalStateException(
                     String.format("채팅방 정원이 초과되었습니다. (현재: %d명, 최대: %d명)",
-                            currentParticipantCount, room.getMaxParticipants())
+                            room.getParticipantCount(), room.getMaxParticipants())
             );
         }
-        // 멤버 목록에 없으면 추가
-        if (!isAlreadyMember) {
-            // UserChatStatus를 먼저 생성/저장
-            UserChatStatus status = new UserChatStatus(roomId, username,nickname);
-            status.setLastReadMessageSeq(0L); // 처음 들어오므로 0
-            userChatStatusRepository.save(status);
-        }
+
+        // 처음 들어오면 기존 메시지는 모두 안 읽은 상태로 시작합니다.
+        unreadCounterService.onJoin(roomId, username, 0L, reserved.getLastMessageSeq());
+        // 참여자 수가 바뀌었으므로 로비에 알립니다.
+        lobbyEventPublisher.roomChanged(roomId, reserved.getParticipantCount());
+    }
+
+    // 필드가 없는 방은 $expr 비교가 항상 참이 되어 정원 검사가 무력해지므로, participantCount 가 있는 방만 대상으로 합니다.
+    private ChatRoom reserveSeat(Long roomId, String username) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(roomId)
+                        .and("bannedUsernames").ne(username)
+                        .and("participantCount").exists(true)
+                        .andOperator(Criteria.expr(ComparisonOperators.valueOf("participantCount").lessThan("maxParticipants")))),
+                new Update().inc("participantCount", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                ChatRoom.class);
     }
 
     // ✅ [신규] 특정 방의 참여자 목록 조회 서비스
@@ -450,17 +455,22 @@ public class ChatService {
             throw new IllegalArgumentException("자기 자신을 강퇴할 수 없습니다.");
         }
 
-        // 3. 밴 목록에 추가 (중복 방지를 위해 Set 사용 후 List 변환 또는 contains 확인)
-        if (!room.getBannedUsernames().contains(userToKick)) {
-            room.getBannedUsernames().add(userToKick);
-            chatRoomRepository.save(room);
+        // 3. 밴 목록에 추가 ($addToSet 이라 중복되지 않음)
+        //    방 문서 전체를 save 하면 읽은 뒤 바뀐 participantCount / lastMessageSeq 를 되돌리므로 이 필드만 바꿉니다.
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(roomId)),
+                new Update().addToSet("bannedUsernames", userToKick), ChatRoom.class);
+
+        // 4. UserChatStatus에서 해당 유저 정보 삭제 (채팅방에서 즉시 나가게 됨). 실제로 지워졌을 때만 자리를 반납합니다.
+        long currentParticipantCount;
+        if (removeMembership(roomId, userToKick)) {
+            unreadCounterService.onLeave(roomId, List.of(userToKick));
+            currentParticipantCount = releaseSeat(roomId);
+        } else {
+            currentParticipantCount = currentParticipantCount(roomId);
         }
 
-        // 4. UserChatStatus에서 해당 유저 정보 삭제 (채팅방에서 즉시 나가게 됨)
-        userChatStatusRepository.deleteByRoomIdAndUsername(roomId, userToKick);
-
         // 5. WebSocket으로 KICK 이벤트 브로드캐스트
-        messagingTemplate.convertAndSend(
+        chatBroadcaster.send(
                 "/sub/chat/room/" + roomId,
                 Map.of(
                         "type", "KICK",
@@ -470,14 +480,38 @@ public class ChatService {
         );
 
         // 6. 참가자 수 변경 이벤트도 함께 보내주면 좋음
-        long currentParticipantCount = userChatStatusRepository.countByRoomId(roomId);
-        messagingTemplate.convertAndSend(
+        chatBroadcaster.send(
                 "/sub/chat/room/" + roomId,
                 Map.of(
                         "type", "PARTICIPANT_COUNT_UPDATE",
                         "participantCount", currentParticipantCount
                 )
         );
+        lobbyEventPublisher.roomChanged(roomId, currentParticipantCount);
+    }
+
+    // 참여 정보를 지우고, 실제로 지워졌는지 반환합니다.
+    private boolean removeMembership(Long roomId, String username) {
+        return mongoTemplate.remove(
+                new Query(Criteria.where("roomId").is(roomId).and("username").is(username)),
+                UserChatStatus.class).getDeletedCount() > 0;
+    }
+
+    // 참여자 수를 1 줄이고 남은 인원을 반환합니다. (0 아래로는 내려가지 않음)
+    private long releaseSeat(Long roomId) {
+        ChatRoom released = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(roomId).and("participantCount").gt(0)),
+                new Update().inc("participantCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                ChatRoom.class);
+        return released != null ? released.getParticipantCount() : 0L;
+    }
+
+    private long currentParticipantCount(Long roomId) {
+        Query query = new Query(Criteria.where("id").is(roomId));
+        query.fields().include("participantCount");
+        ChatRoom room = mongoTemplate.findOne(query, ChatRoom.class);
+        return room != null ? room.getParticipantCount() : 0L;
     }
 
     @Transactional
@@ -491,13 +525,12 @@ public class ChatService {
             throw new SecurityException("공지사항을 수정할 권한이 없습니다.");
         }
 
-        // 3. 공지사항 내용을 업데이트하고 수정 시간을 기록합니다.
-        room.setNotice(notice);
-        room.setUpdatedAt(LocalDateTime.now());
-        chatRoomRepository.save(room);
+        // 3. 공지사항 내용을 업데이트하고 수정 시간을 기록합니다. (두 필드만 바꿔서 참여자 수/메시지 순번을 덮어쓰지 않음)
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(roomId)),
+                new Update().set("notice", notice).set("updatedAt", LocalDateTime.now()), ChatRoom.class);
 
         // 4. WebSocket으로 NOTICE_UPDATE 이벤트를 브로드캐스트합니다.
-        messagingTemplate.convertAndSend(
+        chatBroadcaster.send(
                 "/sub/chat/room/" + roomId,
                 Map.of(
                         "type", "NOTICE_UPDATE",
@@ -0,0 +1,50 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatRoom;
+import com.example.arirangtrail.data.dto.chat.chatRoom.ChatRoomListDTO;
+import com.example.arirangtrail.data.dto.chat.chatRoom.LobbyEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로비 변경분을 /sub/chat/lobby 로 보냅니다.
+ * 스냅샷(GET /api/chat/rooms)에 보이는 정보(방 생성/삭제, 참여자 수)가 바뀔 때만 보내며, 보낼 때마다 로비 버전을 1 올립니다.
+ * 새 메시지는 로비로 보내지 않습니다. 버전 없이 섞여 나가면 클라이언트의 버전 순서 확인을 흐트러뜨리고,
+ * 메시지마다 버전을 올리면 채팅이 활발할 때 공통 스냅샷이 매번 무효화되기 때문입니다. (방별 안 읽은 수는 개인 채널로 갑니다)
+ */
+@Component
+@RequiredArgsConstructor
+public class LobbyEventPublisher {
+    private static final String LOBBY_DESTINATION = "/sub/chat/lobby";
+
+    private final LobbySnapshotService lobbySnapshotService;
+    private final ChatBroadcaster chatBroadcaster;
+
+    public void roomCreated(ChatRoom room, long participantCount) {
+        ChatRoomListDTO summary = new ChatRoomListDTO(
+                room.getId(),
+                room.getTitle(),
+                room.getSubject(),
+                room.getCreator(),
+                room.getMeetingDate(),
+                participantCount,
+                room.getMaxParticipants(),
+                0L,
+                room.getCreatorNickname()
+        );
+        send(new LobbyEventDTO(LobbyEventDTO.EventType.ROOM_CREATED, 0L, room.getId(), summary, null));
+    }
+
+    public void roomDeleted(Long roomId) {
+        send(new LobbyEventDTO(LobbyEventDTO.EventType.ROOM_DELETED, 0L, roomId, null, null));
+    }
+
+    public void roomChanged(Long roomId, long participantCount) {
+        send(new LobbyEventDTO(LobbyEventDTO.EventType.ROOM_CHANGED, 0L, roomId, null, participantCount));
+    }
+
+    private void send(LobbyEventDTO event) {
+        event.setVersion(lobbySnapshotService.bumpVersion());
+        chatBroadcaster.send(LOBBY_DESTINATION, event);
+    }
+}
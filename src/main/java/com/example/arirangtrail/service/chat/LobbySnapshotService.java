@@ -0,0 +1,131 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatRoom;
+import com.example.arirangtrail.data.dto.chat.chatRoom.ChatRoomListDTO;
+import com.example.arirangtrail.data.repository.chat.ChatRoomRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 로비(전체 채팅방 목록) 스냅샷.
+ * 모든 유저에게 공통인 방 목록은 로비 버전("chat:lobby:version")이 바뀔 때만 한 번 만들어 메모리에 들고 있고,
+ * 요청마다 그 위에 요청자의 방별 안 읽은 수만 덧씌워서 반환합니다.
+ * 버전은 Redis 에 있으므로 서버가 여러 대여도 같은 버전을 보게 됩니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbySnapshotService {
+    private static final String VERSION_KEY = "chat:lobby:version";
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UnreadCounterService unreadCounterService;
+
+    private volatile Snapshot snapshot;
+
+    // 방 생성/삭제/입장/퇴장 등 로비에 보이는 정보가 바뀌었을 때 호출합니다. 새 버전을 반환합니다.
+    public long bumpVersion() {
+        Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    public long currentVersion() {
+        String version = redisTemplate.opsForValue().get(VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+
+    // 요청자 기준 로비 화면 (공통 스냅샷 + 안 읽은 수)
+    public LobbyView getLobby(String username) {
+        Snapshot current = getSnapshot();
+        Map<Long, Long> unreadByRoom = unreadCounterService.getRoomUnreadCounts(username);
+
+        List<ChatRoomListDTO> rooms = current.getRooms().stream()
+                .map(room -> new ChatRoomListDTO(
+                        room.getId(),
+                        room.getTitle(),
+                        room.getSubject(),
+                        room.getCreator(),
+                        room.getMeetingDate(),
+                        room.getParticipantCount(),
+                        room.getMaxParticipants(),
+                        unreadByRoom.getOrDefault(room.getId(), 0L),
+                        room.getCreatorNickname()
+                ))
+                .collect(Collectors.toList());
+
+        // 같은 버전이라도 안 읽은 수가 다르면 다른 응답이므로 ETag 에 함께 반영합니다.
+        String etag = "\"" + current.getVersion() + "-" + unreadDigest(unreadByRoom) + "\"";
+        return new LobbyView(current.getVersion(), etag, rooms);
+    }
+
+    // 방 id 순으로 정렬한 "roomId=count;" 나열의 MD5. Map.hashCode() 는 값이 달라도 쉽게 겹치므로 쓰지 않습니다.
+    private static String unreadDigest(Map<Long, Long> unreadByRoom) {
+        StringBuilder canonical = new StringBuilder();
+        new TreeMap<>(unreadByRoom).forEach((roomId, count) ->
+                canonical.append(roomId).append('=').append(count).append(';'));
+        return DigestUtils.md5DigestAsHex(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Snapshot getSnapshot() {
+        long version = currentVersion();
+        Snapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+                current = new Snapshot(version, loadRooms());
+                snapshot = current;
+                log.debug("로비 스냅샷 재생성 - Version: {}, Rooms: {}", version, current.getRooms().size());
+            }
+            return current;
+        }
+    }
+
+    // 방 목록 1회로 공통 목록을 만듭니다. 참여자 수는 ChatRoom 에 유지되는 값을 그대로 씁니다.
+    private List<ChatRoomListDTO> loadRooms() {
+        List<ChatRoom> rooms = chatRoomRepository.findAll();
+
+        return rooms.stream()
+                .map(room -> new ChatRoomListDTO(
+                        room.getId(),
+                        room.getTitle(),
+                        room.getSubject(),
+                        room.getCreator(),
+                        room.getMeetingDate(),
+                        room.getParticipantCount(),
+                        room.getMaxParticipants(),
+                        0L,
+                        room.getCreatorNickname()
+                ))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final long version;
+        private final List<ChatRoomListDTO> rooms;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class LobbyView {
+        private final long version;
+        private final String etag;
+        private final List<ChatRoomListDTO> rooms;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatRoom;
+import com.example.arirangtrail.data.document.UserChatStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ChatRoom.participantCount 가 생기기 전에 만들어진 방들의 참여자 수를 채웁니다.
+ * 필드가 없는 방만 대상으로 하므로 한 번 채워지면 이후 기동에서는 아무 일도 하지 않습니다.
+ * 필드가 없는 방에 입장이 먼저 처리되면 $inc 가 1 로 만들어 버려 다시는 채워지지 않으므로,
+ * 요청을 받기 전(빈 초기화 단계)에 실행합니다. 그래도 남은 방(예: 배포 중 이전 버전 서버가 만든 방)은 joinRoom 이 backfillRoom 으로 채웁니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParticipantCountBackfill {
+    private final MongoTemplate mongoTemplate;
+    private final LobbySnapshotService lobbySnapshotService;
+
+    @PostConstruct
+    public void backfill() {
+        Query missing = new Query(Criteria.where("participantCount").exists(false));
+        missing.fields().include("id");
+        List<ChatRoom> rooms = mongoTemplate.find(missing, ChatRoom.class);
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("roomId").in(rooms.stream().map(ChatRoom::getId).toList())),
+                Aggregation.group("roomId").count().as("count"));
+        for (Document result : mongoTemplate.aggregate(aggregation, UserChatStatus.class, Document.class)) {
+            if (result.get("_id") instanceof Number roomId) {
+                counts.put(roomId.longValue(), ((Number) result.get("count")).longValue());
+            }
+        }
+
+        for (ChatRoom room : rooms) {
+            // 그 사이에 입장/퇴장으로 필드가 생긴 방은 건드리지 않습니다.
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("id").is(room.getId()).and("participantCount").exists(false)),
+                    new Update().set("participantCount", counts.getOrDefault(room.getId(), 0L)),
+                    ChatRoom.class);
+        }
+        lobbySnapshotService.bumpVersion();
+        log.info("채팅방 참여자 수 backfill 완료 - Rooms: {}", rooms.size());
+    }
+
+    // 방 하나의 참여자 수를 채웁니다. 입장 처리 중인 유저는 이미 참여 정보가 들어가 있으므로 빼고 셉니다.
+    // 필드가 없을 때만 쓰므로, 다른 요청이 먼저 채웠다면 아무 일도 하지 않습니다.
+    public void backfillRoom(Long roomId, String joiningUsername) {
+        long count = mongoTemplate.count(
+                new Query(Criteria.where("roomId").is(roomId).and("username").ne(joiningUsername)),
+                UserChatStatus.class);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(roomId).and("participantCount").exists(false)),
+                new Update().set("participantCount", count),
+                ChatRoom.class);
+        log.info("입장 시 채팅방 참여자 수 backfill - Room: {}, Count: {}", roomId, count);
+    }
+}
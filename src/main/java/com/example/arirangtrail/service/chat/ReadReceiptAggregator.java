@@ -0,0 +1,127 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.UserChatStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 읽음 처리(update-status) 요청을 모아두는 단계.
+ * (방, 유저)마다 가장 큰 lastReadMessageSeq 하나만 메모리에 들고 있다가,
+ * 주기(chat.read-receipts.flush-interval-ms)마다 Mongo bulkWrite 한 번 + Redis 스크립트 한 번으로 반영합니다.
+ * 스크롤 중에 요청이 아무리 많이 와도 Mongo 쓰기는 주기당 (방, 유저) 1건을 넘지 않습니다.
+ */
+@Slf4j
+@Component
+public class ReadReceiptAggregator {
+    private final MongoTemplate mongoTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final ChatEventAggregator chatEventAggregator;
+    private final int batchSize;
+
+    // (roomId, username) -> 이번 주기에 받은 가장 큰 seq
+    private final Map<ReadKey, Long> pending = new ConcurrentHashMap<>();
+
+    private final Counter offered;
+    private final Counter flushed;
+
+    public ReadReceiptAggregator(MongoTemplate mongoTemplate,
+                                 UnreadCounterService unreadCounterService,
+                                 ChatEventAggregator chatEventAggregator,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${chat.read-receipts.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.unreadCounterService = unreadCounterService;
+        this.chatEventAggregator = chatEventAggregator;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.offered = meterRegistry.counter("chat.read_receipts.offered");
+        this.flushed = meterRegistry.counter("chat.read_receipts.flushed");
+        Gauge.builder("chat.read_receipts.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void offer(Long roomId, String username, long lastReadSeq) {
+        offered.increment();
+        pending.merge(new ReadKey(roomId, username), lastReadSeq, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.read-receipts.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // 꺼내는 도중 새로 들어온 값은 다음 주기에 나갑니다.
+        Map<ReadKey, Long> drained = new HashMap<>();
+        for (ReadKey key : new ArrayList<>(pending.keySet())) {
+            Long seq = pending.remove(key);
+            if (seq != null) {
+                drained.put(key, seq);
+            }
+        }
+
+        List<Map.Entry<ReadKey, Long>> entries = new ArrayList<>(drained.entrySet());
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<ReadKey, Long>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            try {
+                write(batch);
+            } catch (Exception e) {
+                // 실패한 묶음은 다시 넣어서 다음 주기에 재시도합니다. (더 큰 값이 이미 들어왔다면 그 값이 남음)
+                batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Math::max));
+                log.error("읽음 상태 flush 실패 - {}건, Error: {}", batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<ReadKey, Long>> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserChatStatus.class);
+        Map<String, Map<Long, Long>> readSeqByUser = new HashMap<>();
+        for (Map.Entry<ReadKey, Long> entry : batch) {
+            ReadKey key = entry.getKey();
+            long seq = entry.getValue();
+            // 이미 더 뒤까지 읽은 상태면 매칭되지 않으므로 값이 뒤로 가지 않습니다. 참여 정보가 없으면 만들지 않습니다.
+            bulk.updateOne(
+                    new Query(Criteria.where("roomId").is(key.getRoomId())
+                            .and("username").is(key.getUsername())
+                            .and("lastReadMessageSeq").lt(seq)),
+                    new Update().set("lastReadMessageSeq", seq).set("lastReadAt", now));
+            readSeqByUser.computeIfAbsent(key.getUsername(), username -> new HashMap<>()).put(key.getRoomId(), seq);
+        }
+        bulk.execute();
+
+        unreadCounterService.onReads(readSeqByUser);
+        // 유저당 "안 읽은 수" 알림 1건으로 합쳐서 나갑니다.
+        chatEventAggregator.markUsersDirty(readSeqByUser.keySet());
+        flushed.increment(batch.size());
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class ReadKey {
+        private final Long roomId;
+        private final String username;
+    }
+}
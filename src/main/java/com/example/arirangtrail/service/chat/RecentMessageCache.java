@@ -0,0 +1,273 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.ChatMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * 방별 최근 메시지 캐시. 방마다 최신 perRoom 건만 seq 순으로 들고 있고(가장 오래된 것부터 밀려남),
+ * 최근에 쓰이지 않은 방은 maxRooms 를 넘으면 통째로 버립니다(LRU).
+ * 서버가 여러 대면 다른 서버의 메시지가 relay 로 seq 순서와 다르게 들어올 수 있어서, 배열 링 대신 seq 정렬 맵을 씁니다.
+ *
+ * floorSeq: "이 값보다 큰 seq 의 메시지는 빠짐없이 들고 있다"는 경계. 0 이면 방의 전체 내역을 들고 있다는 뜻입니다.
+ * 요청 범위가 이 경계 안에 있을 때만 캐시로 응답하고(hit), 아니면 빈 Optional 을 돌려 Mongo 로 가게 합니다(miss).
+ * 방 seq 는 1씩 빠짐없이 증가하므로, 응답할 구간의 seq 가 중간에 비어 있으면(relay 유실, 아직 도착하지 않은 메시지) 역시 miss 로 처리합니다.
+ */
+@Slf4j
+@Component
+public class RecentMessageCache {
+    // 메시지 1건당 대략적인 객체/필드 오버헤드 (메모리 추정치용)
+    private static final int MESSAGE_OVERHEAD_BYTES = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageWriter chatMessageWriter;
+    private final int perRoom;
+    private final int maxRooms;
+
+    // access-order LinkedHashMap 으로 LRU. 맵 자체 접근은 this 로 동기화합니다.
+    private final LinkedHashMap<Long, RoomBuffer> rooms;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public RecentMessageCache(MongoTemplate mongoTemplate,
+                              ChatMessageWriter chatMessageWriter,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.history.cache.per-room:100}") int perRoom,
+                              @Value("${chat.history.cache.max-rooms:500}") int maxRooms) {
+        this.mongoTemplate = mongoTemplate;
+        this.chatMessageWriter = chatMessageWriter;
+        this.perRoom = perRoom;
+        this.maxRooms = maxRooms;
+        this.rooms = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RoomBuffer> eldest) {
+                return size() > RecentMessageCache.this.maxRooms;
+            }
+        };
+
+        this.hits = meterRegistry.counter("chat.history.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("chat.history.cache.requests", "result", "miss");
+        Gauge.builder("chat.history.cache.rooms", this, RecentMessageCache::roomCount).register(meterRegistry);
+        Gauge.builder("chat.history.cache.messages", this, cache -> cache.sum(RoomBuffer::size)).register(meterRegistry);
+        Gauge.builder("chat.history.cache.bytes", this, cache -> cache.sum(RoomBuffer::estimatedBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // 저장되었거나(이 서버) relay 로 받은(다른 서버) 메시지를 넣습니다.
+    public void append(ChatMessage message) {
+        if (message.getRoomId() == null || message.getMessageSeq() == null) {
+            return;
+        }
+        buffer(message.getRoomId()).add(message);
+    }
+
+    public void evict(Long roomId) {
+        synchronized (this) {
+            rooms.remove(roomId);
+        }
+    }
+
+    // 가장 최근 limit 건 (오름차순)
+    public Optional<List<ChatMessage>> latest(Long roomId, int limit) {
+        return record(warmBuffer(roomId).latest(limit));
+    }
+
+    // beforeSeq 보다 과거인 최근 limit 건 (오름차순)
+    public Optional<List<ChatMessage>> before(Long roomId, long beforeSeq, int limit) {
+        return record(warmBuffer(roomId).before(beforeSeq, limit));
+    }
+
+    // afterSeq 이후 limit 건 (오름차순). 재접속 시 놓친 메시지 따라잡기용
+    public Optional<List<ChatMessage>> after(Long roomId, long afterSeq, int limit) {
+        return record(warmBuffer(roomId).after(afterSeq, limit));
+    }
+
+    private Optional<List<ChatMessage>> record(Optional<List<ChatMessage>> result) {
+        (result.isPresent() ? hits : misses).increment();
+        return result;
+    }
+
+    private RoomBuffer buffer(Long roomId) {
+        synchronized (this) {
+            return rooms.computeIfAbsent(roomId, id -> new RoomBuffer(perRoom));
+        }
+    }
+
+    // 처음 조회되는 방은 Mongo 에서 최신 perRoom 건(+아직 저장 전인 메시지)을 한 번 읽어 채웁니다.
+    private RoomBuffer warmBuffer(Long roomId) {
+        RoomBuffer buffer = buffer(roomId);
+        if (!buffer.isWarm()) {
+            Query query = new Query(Criteria.where("roomId").is(roomId))
+                    .with(Sort.by(Sort.Direction.DESC, "messageSeq"))
+                    .limit(perRoom);
+            query.fields().exclude("_class");
+            List<ChatMessage> loaded = mongoTemplate.find(query, ChatMessage.class);
+            // 가득 읽었다면 그보다 과거는 모르므로, 읽은 것 중 가장 작은 seq 직전까지만 보장합니다.
+            long floorSeq = loaded.size() < perRoom ? 0 : loaded.get(loaded.size() - 1).getMessageSeq() - 1;
+            buffer.warm(loaded, chatMessageWriter.pendingMessages(roomId), floorSeq);
+            log.debug("최근 메시지 캐시 적재 - Room: {}, Messages: {}, Floor: {}", roomId, loaded.size(), floorSeq);
+        }
+        return buffer;
+    }
+
+    private synchronized int roomCount() {
+        return rooms.size();
+    }
+
+    private double sum(ToLongFunction<RoomBuffer> metric) {
+        List<RoomBuffer> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(rooms.values());
+        }
+        return snapshot.stream().mapToLong(metric).sum();
+    }
+
+    private static class RoomBuffer {
+        private final int capacity;
+        private final TreeMap<Long, ChatMessage> messages = new TreeMap<>();
+        private boolean warm;
+        private long floorSeq;
+        private long estimatedBytes;
+
+        RoomBuffer(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        synchronized boolean isWarm() {
+            return warm;
+        }
+
+        synchronized void warm(List<ChatMessage> loaded, List<ChatMessage> pending, long floorSeq) {
+            if (warm) {
+                return;
+            }
+            // 조회하는 사이에 append 된 메시지는 이미 들어 있으므로 그대로 둡니다.
+            loaded.forEach(this::put);
+            pending.forEach(this::put);
+            this.floorSeq = Math.max(this.floorSeq, floorSeq);
+            this.warm = true;
+            trim();
+        }
+
+        synchronized void add(ChatMessage message) {
+            // 이미 밀려난 구간의 늦게 도착한 메시지는 보장 범위 밖이므로 버립니다.
+            if (message.getMessageSeq() <= floorSeq) {
+                return;
+            }
+            put(message);
+            trim();
+        }
+
+        synchronized Optional<List<ChatMessage>> latest(int limit) {
+            if (messages.size() < limit && floorSeq > 0) {
+                return Optional.empty();
+            }
+            List<ChatMessage> result = tail(messages.values(), messages.size(), limit);
+            return contiguous(result) ? Optional.of(result) : Optional.empty();
+        }
+
+        synchronized Optional<List<ChatMessage>> before(long beforeSeq, int limit) {
+            SortedMap<Long, ChatMessage> head = messages.headMap(beforeSeq);
+            if (head.size() < limit && floorSeq > 0) {
+                return Optional.empty();
+            }
+            List<ChatMessage> result = tail(head.values(), head.size(), limit);
+            // 요청한 seq 바로 앞부터 이어져야 합니다.
+            if (!result.isEmpty() && result.get(result.size() - 1).getMessageSeq() != beforeSeq - 1) {
+                return Optional.empty();
+            }
+            return contiguous(result) ? Optional.of(result) : Optional.empty();
+        }
+
+        synchronized Optional<List<ChatMessage>> after(long afterSeq, int limit) {
+            if (afterSeq < floorSeq) {
+                return Optional.empty();
+            }
+            // afterSeq 다음부터 들고 있는 가장 최신까지 빈 seq 가 없을 때만 캐시로 응답합니다.
+            // 중간이 비어 있으면 그 뒤를 잘라서 주더라도 클라이언트는 빈 구간을 다시 요청할 방법이 없습니다.
+            long expected = afterSeq + 1;
+            for (Long seq : messages.tailMap(afterSeq, false).keySet()) {
+                if (seq != expected++) {
+                    return Optional.empty();
+                }
+            }
+            List<ChatMessage> result = new ArrayList<>(limit);
+            for (ChatMessage message : messages.tailMap(afterSeq, false).values()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(message);
+            }
+            return Optional.of(result);
+        }
+
+        synchronized long size() {
+            return messages.size();
+        }
+
+        synchronized long estimatedBytes() {
+            return estimatedBytes;
+        }
+
+        private void put(ChatMessage message) {
+            ChatMessage previous = messages.put(message.getMessageSeq(), message);
+            if (previous != null) {
+                estimatedBytes -= sizeOf(previous);
+            }
+            estimatedBytes += sizeOf(message);
+        }
+
+        // 정원을 넘으면 가장 오래된 것부터 밀어내고, 보장 경계를 그만큼 올립니다.
+        private void trim() {
+            while (messages.size() > capacity) {
+                Map.Entry<Long, ChatMessage> oldest = messages.pollFirstEntry();
+                estimatedBytes -= sizeOf(oldest.getValue());
+                floorSeq = Math.max(floorSeq, oldest.getKey());
+            }
+        }
+
+        // seq 오름차순 목록이 1씩 빠짐없이 이어지는지
+        private static boolean contiguous(List<ChatMessage> ordered) {
+            for (int i = 1; i < ordered.size(); i++) {
+                if (ordered.get(i).getMessageSeq() != ordered.get(i - 1).getMessageSeq() + 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<ChatMessage> tail(Collection<ChatMessage> values, int size, int limit) {
+            List<ChatMessage> result = new ArrayList<>(Math.min(size, limit));
+            int skip = Math.max(0, size - limit);
+            for (ChatMessage message : values) {
+                if (skip-- > 0) {
+                    continue;
+                }
+                result.add(message);
+            }
+            return result;
+        }
+
+        private static long sizeOf(ChatMessage message) {
+            long chars = 0;
+            for (String field : new String[]{message.getId(), message.getSender(), message.getNickname(),
+                    message.getMessage(), message.getMessageType()}) {
+                chars += field != null ? field.length() : 0;
+            }
+            return MESSAGE_OVERHEAD_BYTES + chars * 2;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.arirangtrail.service.chat;
 
+import com.example.arirangtrail.data.document.ChatRoom;
 import com.example.arirangtrail.data.document.Counter;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
@@ -12,6 +12,11 @@ import static org.springframework.data.mongodb.core.FindAndModifyOptions.options
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+/**
+ * Mongo 의 원자적 $inc 로 번호를 1씩 발급하는 시퀀스 서비스.
+ * 방별 메시지 seq 는 서버마다 블록을 나눠 들지 않고 메시지마다 ChatRoom.lastMessageSeq 를 한 번 올려 받습니다.
+ * 안 읽은 수 계산(UnreadCounterService)과 최근 메시지 캐시가 "seq 가 방 안에서 빈틈없이 1씩 증가한다"는 전제에 기대고 있기 때문입니다.
+ */
 @Service
 public class SequenceService {
     private final MongoOperations mongoOperations;
@@ -20,12 +25,24 @@ public class SequenceService {
         this.mongoOperations = mongoOperations;
     }
 
+    // counters 컬렉션 기반 시퀀스 (예: "roomId")
     public long generateSequence(String seqName) {
         Counter counter = mongoOperations.findAndModify(query(where("_id").is(seqName)),
                 new Update().inc("seq", 1), options().returnNew(true).upsert(true),
                 Counter.class);
         return !Objects.isNull(counter) ? counter.getSeq() : 1;
     }
+
+    // 방별 메시지 seq. 모든 서버가 ChatRoom.lastMessageSeq 하나를 원자적으로 1씩 올려 받아갑니다.
+    public long nextMessageSeq(Long roomId) {
+        ChatRoom updatedRoom = mongoOperations.findAndModify(query(where("id").is(roomId)),
+                new Update().inc("lastMessageSeq", 1), options().returnNew(true),
+                ChatRoom.class);
+        if (updatedRoom == null) {
+            throw new IllegalArgumentException("시퀀스를 생성할 채팅방을 찾을 수 없습니다. ID: " + roomId);
+        }
+        return updatedRoom.getLastMessageSeq();
+    }
 }
 
 // 그 대상을 먼저 1증가 시킨후 해당 숫자를 내가 가져와서 쓸수 있도록 하는 서비스 및 함수
@@ -0,0 +1,271 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.data.document.UserChatStatus;
+import com.example.arirangtrail.data.repository.chat.ChatRoomRepository;
+import com.example.arirangtrail.data.repository.chat.UserChatStatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 유저별/방별 안 읽은 메시지 수를 Redis 해시에 증분으로 유지하는 카운터.
+ * 키: "chat:unread:{username}"
+ * 필드: "{roomId}" -> 안 읽은 수, "{roomId}:read" -> 마지막으로 읽은 seq,
+ *       "{roomId}:seq" -> 안 읽은 수에 반영된 마지막 메시지 seq, "total" -> 전체 안 읽은 수
+ * 메시지 1건당 참여자 수만큼의 HINCRBY 를 한 번의 스크립트 호출로 처리하고,
+ * 해시가 없는(만료되었거나 처음 조회하는) 유저만 Mongo 에서 다시 계산합니다.
+ *
+ * 방 seq 는 방 안에서 빈틈없이 1씩 증가하므로(SequenceService) 안 읽은 수를 seq 차이로 계산합니다.
+ * Mongo 를 읽는 동안 들어온 메시지를 놓치지 않도록, 메시지마다 방의 최신 seq 를 "chat:unread:room:{roomId}" 에 남겨두고
+ * 재계산/입장 스크립트가 Mongo 스냅샷(ChatRoom.lastMessageSeq) 이후의 seq 를 그 자리에서 더합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+    private static final String KEY_PREFIX = "chat:unread:";
+    private static final String TOTAL_FIELD = "total";
+    private static final String ROOM_KEY_PREFIX = "chat:unread:room:";
+    private static final String READ_SUFFIX = ":read";
+    private static final String SEQ_SUFFIX = ":seq";
+    private static final Duration TTL = Duration.ofDays(1);
+
+    // KEYS[1]: 방 최신 seq 키, 나머지: 유저 해시. ARGV: roomId, seq, ttl(초)
+    // 방 최신 seq 는 항상 올리고, 해시에 이 방이 있는 유저에게만 "{roomId}:seq" 이후로 늘어난 만큼 더합니다.
+    // 서버 간 호출 순서가 바뀌어 작은 seq 가 늦게 와도 이미 반영된 구간이라 다시 세지 않습니다.
+    private static final RedisScript<Long> MESSAGE_SCRIPT = new DefaultRedisScript<>(
+            "local room = ARGV[1] " +
+            "local seq = tonumber(ARGV[2]) " +
+            "if seq > tonumber(redis.call('GET', KEYS[1]) or '0') then " +
+            "  redis.call('SET', KEYS[1], seq, 'EX', ARGV[3]) " +
+            "end " +
+            "for i = 2, #KEYS do " +
+            "  local key = KEYS[i] " +
+            "  if redis.call('HEXISTS', key, room) == 1 then " +
+            "    local counted = tonumber(redis.call('HGET', key, room .. ':seq') or (seq - 1)) " +
+            "    if seq > counted then " +
+            "      redis.call('HINCRBY', key, room, seq - counted) " +
+            "      redis.call('HINCRBY', key, 'total', seq - counted) " +
+            "      redis.call('HSET', key, room .. ':seq', seq) " +
+            "    end " +
+            "  end " +
+            "end " +
+            "return #KEYS - 1", Long.class);
+
+    // ARGV 는 (roomId, readSeq) 쌍의 나열. 이전보다 작은 seq 와 참여하지 않은 방(필드 없음)은 무시합니다.
+    private static final RedisScript<Long> READ_SCRIPT = new DefaultRedisScript<>(
+            "local applied = 0 " +
+            "for i, key in ipairs(KEYS) do " +
+            "  local room = ARGV[2 * i - 1] " +
+            "  if redis.call('HEXISTS', key, room) == 1 then " +
+            "    local seq = tonumber(ARGV[2 * i]) " +
+            "    local oldRead = tonumber(redis.call('HGET', key, room .. ':read') or '0') " +
+            "    if seq > oldRead then " +
+            "      local unread = tonumber(redis.call('HGET', key, room) or '0') " +
+            "      local nextUnread = unread - (seq - oldRead) " +
+            "      if nextUnread < 0 then nextUnread = 0 end " +
+            "      redis.call('HSET', key, room, nextUnread, room .. ':read', seq) " +
+            "      redis.call('HINCRBY', key, 'total', nextUnread - unread) " +
+            "      applied = applied + 1 " +
+            "    end " +
+            "  end " +
+            "end " +
+            "return applied", Long.class);
+
+    // KEYS: 유저 해시, 방 최신 seq 키. ARGV: roomId, readSeq, snapshotSeq
+    private static final RedisScript<Long> JOIN_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "local room = ARGV[1] " +
+            "local counted = math.max(tonumber(ARGV[3]), tonumber(ARGV[2])) " +
+            "local unread = counted - tonumber(ARGV[2]) " +
+            "local latest = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+            "if latest > counted then " +
+            "  unread = unread + (latest - counted) " +
+            "  counted = latest " +
+            "end " +
+            "local old = tonumber(redis.call('HGET', KEYS[1], room) or '0') " +
+            "redis.call('HSET', KEYS[1], room, unread, room .. ':read', ARGV[2], room .. ':seq', counted) " +
+            "redis.call('HINCRBY', KEYS[1], 'total', unread - old) " +
+            "return 1", Long.class);
+
+    // ARGV: roomId
+    private static final RedisScript<Long> LEAVE_SCRIPT = new DefaultRedisScript<>(
+            "for _, key in ipairs(KEYS) do " +
+            "  if redis.call('EXISTS', key) == 1 then " +
+            "    local old = tonumber(redis.call('HGET', key, ARGV[1]) or '0') " +
+            "    redis.call('HDEL', key, ARGV[1], ARGV[1] .. ':read', ARGV[1] .. ':seq') " +
+            "    redis.call('HINCRBY', key, 'total', -old) " +
+            "  end " +
+            "end " +
+            "return #KEYS", Long.class);
+
+    // KEYS[1]: 유저 해시, 나머지: 방마다 방 최신 seq 키. ARGV: ttl(초), 이후 방마다 (roomId, readSeq, snapshotSeq)
+    // 이미 다른 요청이 채웠다면 덮어쓰지 않습니다. 스냅샷 이후에 들어온 메시지는 방 최신 seq 와의 차이만큼 더합니다.
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "local total = 0 " +
+            "for i = 2, #KEYS do " +
+            "  local base = 2 + (i - 2) * 3 " +
+            "  local room = ARGV[base] " +
+            "  local readSeq = tonumber(ARGV[base + 1]) " +
+            "  local counted = math.max(tonumber(ARGV[base + 2]), readSeq) " +
+            "  local unread = counted - readSeq " +
+            "  local latest = tonumber(redis.call('GET', KEYS[i]) or '0') " +
+            "  if latest > counted then " +
+            "    unread = unread + (latest - counted) " +
+            "    counted = latest " +
+            "  end " +
+            "  redis.call('HSET', KEYS[1], room, unread, room .. ':read', readSeq, room .. ':seq', counted) " +
+            "  total = total + unread " +
+            "end " +
+            "redis.call('HSET', KEYS[1], 'total', total) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UserChatStatusRepository userChatStatusRepository;
+    private final ChatRoomRepository chatRoomRepository;
+
+    // 방에 seq 번 메시지가 저장되었을 때, 참여자 전원의 카운터를 올립니다. (방 전체를 다시 세지 않습니다)
+    public void onMessage(Long roomId, long seq, Collection<String> usernames) {
+        List<String> keys = new ArrayList<>(usernames.size() + 1);
+        keys.add(roomKey(roomId));
+        usernames.forEach(username -> keys.add(key(username)));
+        redisTemplate.execute(MESSAGE_SCRIPT, keys,
+                String.valueOf(roomId), String.valueOf(seq), String.valueOf(TTL.toSeconds()));
+    }
+
+    // 유저가 방의 readSeq 까지 읽었을 때 카운터를 줄입니다. 여러 유저/방의 읽음 처리를 한 번의 스크립트 호출로 반영합니다. (username -> (roomId -> readSeq))
+    public void onReads(Map<String, Map<Long, Long>> readSeqByUser) {
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        readSeqByUser.forEach((username, readSeqByRoom) -> readSeqByRoom.forEach((roomId, readSeq) -> {
+            keys.add(key(username));
+            args.add(String.valueOf(roomId));
+            args.add(String.valueOf(readSeq));
+        }));
+        if (!keys.isEmpty()) {
+            redisTemplate.execute(READ_SCRIPT, keys, args.toArray());
+        }
+    }
+
+    // 방에 새로 참여한 유저의 초기 안 읽은 수를 기록합니다. readSeq 이후 ~ lastMessageSeq(입장 시점의 방 seq) 가 안 읽은 상태로 시작합니다.
+    public void onJoin(Long roomId, String username, long readSeq, long lastMessageSeq) {
+        redisTemplate.execute(JOIN_SCRIPT, List.of(key(username), roomKey(roomId)),
+                String.valueOf(roomId), String.valueOf(readSeq), String.valueOf(lastMessageSeq));
+    }
+
+    // 방을 나가거나(강퇴 포함) 방이 삭제될 때 해당 방의 안 읽은 수를 합계에서 빼고 지웁니다.
+    public void onLeave(Long roomId, Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        List<String> keys = usernames.stream().map(this::key).toList();
+        redisTemplate.execute(LEAVE_SCRIPT, keys, String.valueOf(roomId));
+    }
+
+    // 방이 삭제되면 방 최신 seq 키도 지웁니다. (참여자 해시 정리는 onLeave 로 먼저 합니다)
+    public void onRoomDeleted(Long roomId) {
+        redisTemplate.delete(roomKey(roomId));
+    }
+
+    public long getTotalUnreadCount(String username) {
+        Object total = redisTemplate.opsForHash().get(key(username), TOTAL_FIELD);
+        if (total != null) {
+            return Math.max(0, Long.parseLong(total.toString()));
+        }
+        return rebuild(username).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // 여러 유저의 방별 안 읽은 수를 한 번의 파이프라인으로 가져옵니다. (username -> (roomId -> count))
+    public Map<String, Map<Long, Long>> getRoomUnreadCounts(Collection<String> usernames) {
+        List<String> ordered = new ArrayList<>(usernames);
+        List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (String username : ordered) {
+                    operations.opsForHash().entries(key(username));
+                }
+                return null;
+            }
+        });
+
+        Map<String, Map<Long, Long>> result = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            String username = ordered.get(i);
+            Map<?, ?> entries = (Map<?, ?>) hashes.get(i);
+            result.put(username, entries == null || entries.isEmpty() ? rebuild(username) : toRoomCounts(entries));
+        }
+        return result;
+    }
+
+    // 유저가 참여한 방별 안 읽은 수 (roomId -> count)
+    public Map<Long, Long> getRoomUnreadCounts(String username) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key(username));
+        if (entries.isEmpty()) {
+            return rebuild(username);
+        }
+        return toRoomCounts(entries);
+    }
+
+    private Map<Long, Long> toRoomCounts(Map<?, ?> entries) {
+        Map<Long, Long> result = new HashMap<>();
+        entries.forEach((field, value) -> {
+            String name = field.toString();
+            if (!TOTAL_FIELD.equals(name) && !name.endsWith(READ_SUFFIX) && !name.endsWith(SEQ_SUFFIX)) {
+                result.put(Long.parseLong(name), Math.max(0, Long.parseLong(value.toString())));
+            }
+        });
+        return result;
+    }
+
+    // Redis 에 해시가 없을 때만 Mongo 기준으로 다시 계산해서 채웁니다.
+    // 방마다 lastMessageSeq 를 스냅샷으로 잡고 readSeq 와의 차이를 안 읽은 수로 씁니다. 스냅샷을 읽은 뒤 해시를 채우기 전에
+    // 들어온 메시지는 스크립트가 방 최신 seq 와 비교해 더하고, MESSAGE_SCRIPT 는 이미 반영된 seq 를 다시 세지 않습니다.
+    private Map<Long, Long> rebuild(String username) {
+        List<UserChatStatus> statuses = userChatStatusRepository.findByUsername(username);
+        Map<Long, Long> lastSeqByRoom = new HashMap<>();
+        chatRoomRepository.findAllById(statuses.stream().map(UserChatStatus::getRoomId).toList())
+                .forEach(room -> lastSeqByRoom.put(room.getId(), room.getLastMessageSeq()));
+
+        Map<Long, Long> unreadByRoom = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        keys.add(key(username));
+        args.add(String.valueOf(TTL.toSeconds()));
+        for (UserChatStatus status : statuses) {
+            long readSeq = status.getLastReadMessageSeq();
+            long snapshotSeq = lastSeqByRoom.getOrDefault(status.getRoomId(), 0L);
+            unreadByRoom.put(status.getRoomId(), Math.max(0, snapshotSeq - readSeq));
+
+            keys.add(roomKey(status.getRoomId()));
+            args.add(String.valueOf(status.getRoomId()));
+            args.add(String.valueOf(readSeq));
+            args.add(String.valueOf(snapshotSeq));
+        }
+
+        redisTemplate.execute(LOAD_SCRIPT, keys, args.toArray());
+        // 스냅샷 이후 메시지가 더해졌을 수 있으므로 실제로 채워진 값을 돌려줍니다.
+        Map<Object, Object> loaded = redisTemplate.opsForHash().entries(key(username));
+        Map<Long, Long> result = loaded.isEmpty() ? unreadByRoom : toRoomCounts(loaded);
+        log.debug("안 읽은 메시지 카운터 재계산 - User: {}, Rooms: {}", username, statuses.size());
+        return result;
+    }
+
+    private String key(String username) {
+        return KEY_PREFIX + username;
+    }
+
+    private String roomKey(Long roomId) {
+        return ROOM_KEY_PREFIX + roomId;
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.arirangtrail.service.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 좋아요/공유 이벤트를 Redis Stream(festival:events)에서 읽어 MySQL 에 모아서 반영하는 워커.
+ * FestivalService 의 스크립트가 Redis 상태 변경과 같은 호출 안에서 이벤트를 XADD 하므로, Redis 에 반영된 변경은 빠짐없이 스트림에 남습니다.
+ * 한 번 읽은 묶음 안에서는 (유저, 축제)별 마지막 좋아요 상태만 남겨서 JDBC batch 로 반영하고, 커밋이 끝난 뒤에 XACK 합니다.
+ * ack 전에 서버가 내려가면 다른 서버(또는 재기동한 자신)가 claim 해서 다시 처리하므로, 다시 처리해도 결과가 같게 만듭니다.
+ * - like_count: 증감 대신 바뀐 축제의 likes 행 수를 다시 세어 덮어씁니다.
+ * - share_count: 더한 이벤트의 스트림 ID 를 festival_event_log 에 같은 트랜잭션으로 남기고, 이미 있는 ID 는 더하지 않습니다.
+ * 반영에 계속 실패하는 이벤트는 max-deliveries 번 시도한 뒤 festival:events:dead 로 옮겨서 뒤의 이벤트를 막지 않게 합니다.
+ */
+@Slf4j
+@Component
+public class FestivalEventWorker {
+    public static final String STREAM_KEY = "festival:events";
+    public static final String DEAD_LETTER_KEY = "festival:events:dead";
+    public static final String TYPE_LIKE = "LIKE";
+    public static final String TYPE_UNLIKE = "UNLIKE";
+    public static final String TYPE_SHARE = "SHARE";
+    private static final String GROUP = "festival-db-writer";
+    private static final int PRUNE_BATCH = 10_000;
+
+    // 탈퇴 등으로 users 에 없는 유저는 건너뛰고, 이미 있는 좋아요는 다시 넣지 않습니다.
+    private static final String INSERT_LIKE_SQL =
+            "INSERT INTO likes (username, contentid, createdat) " +
+            "SELECT u.username, ?, ? FROM users u WHERE u.username = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.username = ? AND l.contentid = ?)";
+    private static final String DELETE_LIKE_SQL =
+            "DELETE FROM likes WHERE username = ? AND contentid = ?";
+    private static final String RECOUNT_LIKES_SQL =
+            "INSERT INTO festivalmeta (contentid, like_count, share_count) " +
+            "SELECT ?, COUNT(*), 0 FROM likes WHERE contentid = ? " +
+            "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count)";
+    // 이미 반영한 공유 이벤트면 0 행이 들어갑니다. (rewriteBatchedStatements 를 켜지 않으므로 batch 결과가 행마다 옵니다)
+    private static final String LOG_SHARE_SQL =
+            "INSERT IGNORE INTO festival_event_log (stream_id, processed_at) VALUES (?, ?)";
+    private static final String ADD_SHARES_SQL =
+            "INSERT INTO festivalmeta (contentid, like_count, share_count) VALUES (?, 0, ?) " +
+            "ON DUPLICATE KEY UPDATE share_count = share_count + VALUES(share_count)";
+    private static final String PRUNE_LOG_SQL =
+            "DELETE FROM festival_event_log WHERE processed_at < ? LIMIT " + PRUNE_BATCH;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String consumer;
+    private final int batchSize;
+    private final Duration claimIdle;
+    private final int maxDeliveries;
+    private final Duration logRetention;
+
+    // 이 서버에서 반영에 실패한 횟수 (스트림 ID -> 횟수). ack 하거나 dead-letter 로 옮기면 지웁니다.
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    private final Counter appliedEvents;
+    private final Counter failures;
+    private final Counter deadLettered;
+
+    public FestivalEventWorker(RedisTemplate<String, String> redisTemplate,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${festival.events.consumer:}") String consumer,
+                               @Value("${festival.events.batch-size:500}") int batchSize,
+                               @Value("${festival.events.claim-idle-ms:60000}") long claimIdleMs,
+                               @Value("${festival.events.max-deliveries:10}") int maxDeliveries,
+                               @Value("${festival.events.log-retention-hours:168}") long logRetentionHours) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.consumer = StringUtils.hasText(consumer) ? consumer : defaultConsumerName();
+        this.batchSize = batchSize;
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+        this.maxDeliveries = maxDeliveries;
+        this.logRetention = Duration.ofHours(logRetentionHours);
+
+        this.appliedEvents = meterRegistry.counter("festival.events.applied");
+        this.failures = meterRegistry.counter("festival.events.failures");
+        this.deadLettered = meterRegistry.counter("festival.events.dead_lettered");
+    }
+
+    // 서버마다 달라야 하므로 HOSTNAME 이 없거나 겹쳐도 구분되도록 임의 값을 붙입니다.
+    // 재기동하면 이름이 바뀌지만, 예전 이름으로 남은 이벤트는 claim-idle 이 지나면 claimAbandoned 가 가져옵니다.
+    private static String defaultConsumerName() {
+        String host = System.getenv("HOSTNAME");
+        return (StringUtils.hasText(host) ? host : "node") + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    // 스트림과 consumer group 을 (없으면) 만듭니다. 이미 있으면 BUSYGROUP 이 나므로 무시합니다.
+    @PostConstruct
+    void createGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands().xGroupCreate(
+                    STREAM_KEY.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+            log.info("축제 이벤트 consumer group 생성 - Stream: {}, Group: {}", STREAM_KEY, GROUP);
+        } catch (DataAccessException e) {
+            String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            if (!message.contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        log.info("축제 이벤트 워커 시작 - Consumer: {}", consumer);
+    }
+
+    @Scheduled(fixedDelayString = "${festival.events.flush-interval-ms:500}")
+    public void flush() {
+        try {
+            claimAbandoned();
+            // 먼저 받아두고 ack 하지 못한 내 몫(재시작, claim 등)을 처리하고, 그 다음 새 이벤트를 읽습니다.
+            drain(ReadOffset.from("0"));
+            drain(ReadOffset.lastConsumed());
+        } catch (Exception e) {
+            // 실패한 이벤트부터는 ack 되지 않았으므로 다음 주기에 그대로 다시 처리됩니다.
+            failures.increment();
+            log.error("축제 이벤트 DB 반영 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    // 오래된 공유 이벤트 기록과, 이벤트 없이 오래 쉬고 있는 (내려간 서버의) consumer 를 정리합니다.
+    @Scheduled(fixedDelayString = "${festival.events.prune-interval-ms:3600000}")
+    public void prune() {
+        try {
+            Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(logRetention));
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PRUNE_LOG_SQL, before);
+            } while (deleted >= PRUNE_BATCH);
+
+            for (StreamInfo.XInfoConsumer info : redisTemplate.opsForStream().consumers(STREAM_KEY, GROUP)) {
+                if (!consumer.equals(info.consumerName()) && info.pendingCount() == 0
+                        && info.idleTime().compareTo(logRetention) >= 0) {
+                    redisTemplate.opsForStream().deleteConsumer(STREAM_KEY, Consumer.from(GROUP, info.consumerName()));
+                    log.info("쉬고 있는 축제 이벤트 consumer 삭제 - Consumer: {}", info.consumerName());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("축제 이벤트 기록 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 다른 consumer(내려간 서버)가 오래 들고 있는 이벤트를 가져옵니다.
+    private void claimAbandoned() {
+        PendingMessages pending = redisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.unbounded(), batchSize);
+        RecordId[] abandoned = pending.stream()
+                .filter(message -> !consumer.equals(message.getConsumerName()))
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) >= 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (abandoned.length > 0) {
+            redisTemplate.opsForStream().claim(STREAM_KEY, GROUP, consumer, claimIdle, abandoned);
+            log.info("방치된 축제 이벤트 {}건을 가져왔습니다. - Consumer: {}", abandoned.length, consumer);
+        }
+    }
+
+    // 읽은 묶음이 가득 차 있으면 더 남은 것으로 보고 계속 읽습니다.
+    private void drain(ReadOffset offset) {
+        int read;
+        do {
+            read = process(offset);
+        } while (read >= batchSize);
+    }
+
+    // 한 묶음을 읽어 반영하고 ack 합니다. 읽은 건수를 반환합니다.
+    private int process(ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = read(offset);
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+
+        // 해석할 수 없는 이벤트는 몇 번을 다시 읽어도 같으므로 바로 dead-letter 로 옮깁니다.
+        List<FestivalEvent> events = new ArrayList<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            try {
+                events.add(FestivalEvent.from(record));
+            } catch (RuntimeException e) {
+                deadLetter(record, e);
+            }
+        }
+        if (events.isEmpty()) {
+            return records.size();
+        }
+
+        try {
+            applyAndAcknowledge(events);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            // 묶음 안의 어느 이벤트가 문제인지 모르므로 한 건씩 다시 반영합니다.
+            // 같은 유저의 좋아요/취소 순서가 뒤집히지 않도록, 실패한 이벤트에서 멈추고 다음 주기에 그 이벤트부터 다시 시도합니다.
+            for (FestivalEvent event : events) {
+                try {
+                    applyAndAcknowledge(List.of(event));
+                } catch (RuntimeException single) {
+                    if (isTransient(single) || !exhausted(event.id)) {
+                        throw single;
+                    }
+                    deadLetter(event.record, single);
+                }
+            }
+        }
+        return records.size();
+    }
+
+    // Consumer/StreamOffset varargs 로 인한 unchecked 경고를 이 한 곳에서만 막습니다.
+    @SuppressWarnings("unchecked")
+    private List<MapRecord<String, Object, Object>> read(ReadOffset offset) {
+        return redisTemplate.opsForStream().read(
+                Consumer.from(GROUP, consumer),
+                StreamReadOptions.empty().count(batchSize),
+                StreamOffset.create(STREAM_KEY, offset));
+    }
+
+    private void applyAndAcknowledge(List<FestivalEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> apply(events));
+
+        RecordId[] ids = events.stream().map(FestivalEvent::id).toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, ids);
+        redisTemplate.opsForStream().delete(STREAM_KEY, ids);
+        for (RecordId id : ids) {
+            failedAttempts.remove(id.getValue());
+        }
+        appliedEvents.increment(events.size());
+        log.debug("축제 이벤트 반영 - Events: {}", events.size());
+    }
+
+    private void apply(List<FestivalEvent> events) {
+        // (유저, 축제) -> 마지막 좋아요 상태와 그 시각
+        Map<LikeKey, LikeState> likes = new LinkedHashMap<>();
+        List<FestivalEvent> shares = new ArrayList<>();
+        for (FestivalEvent event : events) {
+            switch (event.type) {
+                case TYPE_LIKE, TYPE_UNLIKE -> likes.put(new LikeKey(event.username, event.contentid),
+                        new LikeState(TYPE_LIKE.equals(event.type), new Timestamp(event.id.getTimestamp())));
+                case TYPE_SHARE -> shares.add(event);
+                default -> log.warn("알 수 없는 축제 이벤트 무시 - Id: {}, Type: {}", event.id, event.type);
+            }
+        }
+
+        if (!likes.isEmpty()) {
+            applyLikes(likes);
+        }
+        if (!shares.isEmpty()) {
+            applyShares(shares);
+        }
+    }
+
+    private void applyLikes(Map<LikeKey, LikeState> likes) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Set<Long> festivals = new TreeSet<>();
+        likes.forEach((key, state) -> {
+            if (state.liked) {
+                inserts.add(new Object[]{key.contentid, state.at, key.username, key.username, key.contentid});
+            } else {
+                deletes.add(new Object[]{key.username, key.contentid});
+            }
+            festivals.add(key.contentid);
+        });
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_LIKE_SQL, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LIKE_SQL, inserts);
+        }
+        // 축제 순서대로 다시 세므로 서버끼리 같은 축제를 엇갈려 잠그지 않습니다.
+        jdbcTemplate.batchUpdate(RECOUNT_LIKES_SQL, festivals.stream()
+                .map(contentid -> new Object[]{contentid, contentid})
+                .toList());
+    }
+
+    private void applyShares(List<FestivalEvent> shares) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] logged = jdbcTemplate.batchUpdate(LOG_SHARE_SQL, shares.stream()
+                .map(event -> new Object[]{event.id.getValue(), now})
+                .toList());
+
+        Map<Long, Long> counts = new TreeMap<>();
+        for (int i = 0; i < shares.size(); i++) {
+            if (logged[i] == 1) {
+                counts.merge(shares.get(i).contentid, 1L, Long::sum);
+            }
+        }
+        if (!counts.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_SHARES_SQL, counts.entrySet().stream()
+                    .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                    .toList());
+        }
+    }
+
+    // DB 연결/락 문제처럼 시간이 지나면 풀리는 실패는 이벤트 탓이 아니므로 dead-letter 횟수에 넣지 않습니다.
+    private static boolean isTransient(Throwable e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // 이 서버에서 실패한 횟수와 스트림의 전달 횟수(다른 서버에서 시도한 것 포함) 중 큰 쪽으로 판단합니다.
+    private boolean exhausted(RecordId id) {
+        int attempts = failedAttempts.merge(id.getValue(), 1, Integer::sum);
+        PendingMessages pending = redisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.closed(id.getValue(), id.getValue()), 1);
+        long deliveries = pending.isEmpty() ? 0 : pending.get(0).getTotalDeliveryCount();
+        return Math.max(attempts, deliveries) >= maxDeliveries;
+    }
+
+    // 원본 필드와 실패 이유를 dead-letter 스트림에 남기고 원래 스트림에서는 ack/삭제합니다.
+    private void deadLetter(MapRecord<String, Object, Object> record, Exception cause) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        record.getValue().forEach((key, value) -> fields.put(String.valueOf(key), String.valueOf(value)));
+        fields.put("sourceId", record.getId().getValue());
+        fields.put("error", String.valueOf(NestedExceptionUtils.getMostSpecificCause(cause).getMessage()));
+        redisTemplate.opsForStream().add(DEAD_LETTER_KEY, fields);
+
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, record.getId());
+        redisTemplate.opsForStream().delete(STREAM_KEY, record.getId());
+        failedAttempts.remove(record.getId().getValue());
+        deadLettered.increment();
+        log.error("축제 이벤트를 dead-letter 로 옮겼습니다. - Id: {}, Fields: {}, Cause: {}",
+                record.getId(), record.getValue(), cause.getMessage());
+    }
+
+    private record FestivalEvent(RecordId id, String type, String username, Long contentid,
+                                 MapRecord<String, Object, Object> record) {
+        static FestivalEvent from(MapRecord<String, Object, Object> record) {
+            Map<Object, Object> fields = record.getValue();
+            String type = String.valueOf(fields.get("type"));
+            Long contentid = Long.valueOf(String.valueOf(fields.get("contentid")));
+            Object username = fields.get("username");
+            if ((TYPE_LIKE.equals(type) || TYPE_UNLIKE.equals(type)) && username == null) {
+                throw new IllegalArgumentException("username 이 없는 좋아요 이벤트입니다.");
+            }
+            return new FestivalEvent(record.getId(), type, username == null ? null : username.toString(), contentid, record);
+        }
+    }
+
+    private record LikeKey(String username, Long contentid) {
+    }
+
+    private record LikeState(boolean liked, Timestamp at) {
+    }
+}
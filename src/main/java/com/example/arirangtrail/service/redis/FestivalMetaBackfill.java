@@ -0,0 +1,88 @@
+package com.example.arirangtrail.service.redis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FestivalEventWorker 가 like_count 를 다시 세기 전에는 festivalmeta.like_count 가 관리되지 않았으므로, likes 기준으로 한 번 다시 채웁니다.
+ * Redis 의 festival_meta:{id} 해시도 그 값으로 캐시가 채워졌으므로, 좋아요 ZSET(festival:{id}:likes) 크기로 맞추거나 지워서 DB 에서 다시 읽게 합니다.
+ * 끝나면 마커 키를 남겨 이후 기동에서는 건너뜁니다. (Redis 가 비워져 마커가 없어져도 다시 돌 뿐 결과는 같습니다)
+ */
+@Slf4j
+@Component
+public class FestivalMetaBackfill {
+    static final String MARKER_KEY = "migration:festival_meta:like_count";
+    private static final String META_KEY_PREFIX = "festival_meta:";
+
+    private static final String RESET_SQL =
+            "UPDATE festivalmeta m SET like_count = (SELECT COUNT(*) FROM likes l WHERE l.contentid = m.contentid)";
+    private static final String FILL_SQL =
+            "INSERT INTO festivalmeta (contentid, like_count, share_count) " +
+            "SELECT contentid, COUNT(*), 0 FROM likes GROUP BY contentid " +
+            "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count)";
+
+    // KEYS: festival_meta:{id}(HASH), festival:{id}:likes(ZSET)
+    // 좋아요 토글 스크립트가 ZSET 과 like_count 를 함께 바꾸므로, ZSET 이 있으면 그 크기가 Redis 쪽 정답입니다.
+    // ZSET 이 없으면 해시를 지워서 다음 조회 때 DB 값으로 다시 채웁니다.
+    private static final RedisScript<Long> SYNC_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "if redis.call('EXISTS', KEYS[2]) == 1 then " +
+            "  redis.call('HSET', KEYS[1], 'like_count', redis.call('ZCARD', KEYS[2])) " +
+            "else " +
+            "  redis.call('DEL', KEYS[1]) " +
+            "end " +
+            "return 1", Long.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public FestivalMetaBackfill(JdbcTemplate jdbcTemplate,
+                                RedisTemplate<String, String> redisTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(MARKER_KEY))) {
+            return;
+        }
+        Integer festivals = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(RESET_SQL);
+            return jdbcTemplate.update(FILL_SQL);
+        });
+
+        List<String> metaKeys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(META_KEY_PREFIX + "*").count(100).build())) {
+            cursor.forEachRemaining(metaKeys::add);
+        }
+        int synced = 0;
+        for (String metaKey : metaKeys) {
+            String contentid = metaKey.substring(META_KEY_PREFIX.length());
+            Long result = redisTemplate.execute(SYNC_SCRIPT, List.of(metaKey, "festival:" + contentid + ":likes"));
+            if (result != null && result == 1L) {
+                synced++;
+            }
+        }
+
+        redisTemplate.opsForValue().set(MARKER_KEY, "done");
+        log.info("축제 like_count backfill 완료 - Rows: {}, Redis: {}", festivals, synced);
+    }
+}
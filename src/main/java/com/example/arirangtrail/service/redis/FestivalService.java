@@ -1,84 +1,103 @@
 package com.example.arirangtrail.service.redis;
 
+import com.example.arirangtrail.component.user.UserProfileCache;
 import com.example.arirangtrail.data.dto.festival.FestivalStatusDTO;
 import com.example.arirangtrail.data.dto.festival.LikeStatusDTO;
 import com.example.arirangtrail.data.dto.festival.LikedUserDTO;
 import com.example.arirangtrail.data.dto.festival.MyLikedFestivalDTO;
-import com.example.arirangtrail.data.entity.UserEntity;
+import com.example.arirangtrail.data.dto.user.UserProfileDTO;
+import com.example.arirangtrail.data.entity.FestivalCatalogEntity;
 import com.example.arirangtrail.data.entity.redis.FestivalMetaEntity;
 import com.example.arirangtrail.data.entity.redis.LikeEntity;
-import com.example.arirangtrail.data.repository.UserRepository;
+import com.example.arirangtrail.data.repository.FestivalCatalogRepository;
 import com.example.arirangtrail.data.repository.redis.FestivalMetaRepository;
 import com.example.arirangtrail.data.repository.redis.LikeRepository;
+import com.example.arirangtrail.service.tour.TourApiGateway;
+import com.example.arirangtrail.service.tour.TourEndpoint;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
-import java.net.URI;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FestivalService {
     private final RedisTemplate<String, String> redisTemplate;
-    private final RestTemplate restTemplate;
+    private final TourApiGateway tourApiGateway;
+    private final FestivalCatalogRepository festivalCatalogRepository;
     private final LikeRepository likeRepository;
     private final FestivalMetaRepository festivalMetaRepository;
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
     private final ObjectMapper objectMapper;
 
-    private String serviceKey="WCIc8hzzBS3Jdod%2BVa357JmB%2FOS0n4D2qPHaP9PkN4bXIfcryZyg4iaZeTj1fEYJ%2B8q2Ol8FIGe3RkW3d72FHA%3D%3D";
-
     // --- 좋아요 관련 로직 ---
 
-    @Transactional
+    // 축제 메타 해시(festival_meta:{id})가 아직 Redis 에 없을 때 스크립트가 돌려주는 값. DB 값으로 채운 뒤 다시 실행합니다.
+    private static final long META_NOT_LOADED = -1L;
+
+    // KEYS: festival:{id}:likes(ZSET), user:{u}:likes(SET), festival_meta:{id}(HASH), festival:events(STREAM)
+    // ARGV: username, contentid, 현재 시각(ms)
+    // 이미 좋아요 상태면 취소, 아니면 추가하고 like_count 증감과 DB 반영용 이벤트(XADD)까지 한 번에 처리합니다.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<Long>> TOGGLE_LIKE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[3]) == 0 then return {-1, 0} end " +
+            "local liked " +
+            "if redis.call('ZSCORE', KEYS[1], ARGV[1]) then " +
+            "  redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "  redis.call('SREM', KEYS[2], ARGV[2]) " +
+            "  liked = 0 " +
+            "else " +
+            "  redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1]) " +
+            "  redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "  liked = 1 " +
+            "end " +
+            "local count = redis.call('HINCRBY', KEYS[3], 'like_count', liked == 1 and 1 or -1) " +
+            "redis.call('XADD', KEYS[4], '*', 'type', liked == 1 and 'LIKE' or 'UNLIKE', " +
+            "  'username', ARGV[1], 'contentid', ARGV[2]) " +
+            "return {liked, count}", (Class<List<Long>>) (Class) List.class);
+
+    // KEYS: festival_meta:{id}(HASH), festival:events(STREAM) / ARGV: contentid
+    private static final RedisScript<Long> SHARE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "local count = redis.call('HINCRBY', KEYS[1], 'share_count', 1) " +
+            "redis.call('XADD', KEYS[2], '*', 'type', 'SHARE', 'contentid', ARGV[1]) " +
+            "return count", Long.class);
+
     public LikeStatusDTO toggleLike(String username, Long contentid) {
         String festivalLikesKey = "festival:" + contentid + ":likes";
         String userLikesKey = "user:" + username + ":likes";
         String festivalMetaKey = "festival_meta:" + contentid;
-        // Long 타입의 contentid를 String으로 한번만 변환하여 재사용합니다.
-        String contentIdStr = String.valueOf(contentid);
 
-        UserEntity user = userRepository.findByUsername(username)
+        // 존재하지 않는 사용자의 좋아요는 받지 않습니다. (프로필 캐시로 확인)
+        userProfileCache.get(username)
                 .orElseThrow(() -> new NoSuchElementException("해당 사용자를 찾을 수 없습니다: " + username));
 
-        Double score = redisTemplate.opsForZSet().score(festivalLikesKey, username);
-        boolean isLiked;
-
-        // isMember 검사 시에도 String 타입을 사용해야 합니다.
-        if (score == null) {
-            // 좋아요 추가
-            redisTemplate.opsForZSet().add(festivalLikesKey, username, System.currentTimeMillis());
-            redisTemplate.opsForSet().add(userLikesKey, contentIdStr);
-            redisTemplate.opsForHash().increment(festivalMetaKey, "like_count", 1);
-
-            LikeEntity newLike = new LikeEntity();
-            newLike.setUser(user);
-            newLike.setContentid(contentid);
-            likeRepository.save(newLike);
-            isLiked = true;
-        } else {
-            // 좋아요 취소
-            redisTemplate.opsForZSet().remove(festivalLikesKey, username);
-            redisTemplate.opsForSet().remove(userLikesKey, contentIdStr);
-            redisTemplate.opsForHash().increment(festivalMetaKey, "like_count", -1);
-
-            likeRepository.deleteByUser_UsernameAndContentid(username, contentid);
-            isLiked = false;
+        // 좋아요 여부 확인/변경과 like_count 증감을 스크립트 한 번으로 처리합니다. -> [좋아요 여부(1/0), 최종 like_count]
+        // DB(likes, festivalmeta)는 스크립트가 남긴 이벤트를 FestivalEventWorker 가 모아서 반영합니다.
+        List<String> keys = List.of(festivalLikesKey, userLikesKey, festivalMetaKey, FestivalEventWorker.STREAM_KEY);
+        List<Long> result = redisTemplate.execute(TOGGLE_LIKE_SCRIPT, keys,
+                username, String.valueOf(contentid), String.valueOf(System.currentTimeMillis()));
+        if (result != null && !result.isEmpty() && result.get(0) == META_NOT_LOADED) {
+            this.getFestivalMeta(contentid);
+            result = redisTemplate.execute(TOGGLE_LIKE_SCRIPT, keys,
+                    username, String.valueOf(contentid), String.valueOf(System.currentTimeMillis()));
         }
-        // (수정) 작업이 끝난 후, Redis에서 최종 likeCount를 다시 조회합니다.
-        Object likeCountObj = redisTemplate.opsForHash().get(festivalMetaKey, "like_count");
-        long currentLikeCount = (likeCountObj != null) ? Long.parseLong(likeCountObj.toString()) : 0;
+        if (result == null || result.size() < 2 || result.get(0) == META_NOT_LOADED) {
+            throw new IllegalStateException("좋아요 처리 결과를 받지 못했습니다: " + contentid);
+        }
+        boolean isLiked = result.get(0) == 1L;
+        long currentLikeCount = result.get(1);
 
-        // (수정) 최신 상태를 DTO에 담아 반환합니다.
+        // 최신 상태를 DTO에 담아 반환합니다.
         return new LikeStatusDTO(isLiked, currentLikeCount);
     }
 
@@ -89,18 +108,20 @@ public class FestivalService {
 
 
     // --- 공유 관련 로직 ---
-    @Transactional
     public void incrementShareCount(Long contentid) {
-        String festivalMetaKey = "festival_meta:" + contentid;
+        List<String> keys = List.of("festival_meta:" + contentid, FestivalEventWorker.STREAM_KEY);
 
-        // 1. Redis 캐시의 공유 횟수 1 증가
-        redisTemplate.opsForHash().increment(festivalMetaKey, "share_count", 1);
+        // 1. Redis 캐시의 공유 횟수 1 증가 + DB 반영용 이벤트 기록 (DB 는 FestivalEventWorker 가 모아서 반영)
+        Long shareCount = redisTemplate.execute(SHARE_SCRIPT, keys, String.valueOf(contentid));
 
-        // 2. DB에 영구 저장 (존재하지 않으면 새로 생성, 존재하면 카운트 증가)
-        FestivalMetaEntity meta = festivalMetaRepository.findById(contentid)
-                .orElse(new FestivalMetaEntity(contentid)); // 없으면 새 객체 생성
-        meta.setShareCount(meta.getShareCount() + 1);
-        festivalMetaRepository.save(meta);
+        // 2. 캐시가 아직 없으면 DB 값으로 채운 뒤 다시 시도합니다.
+        if (shareCount != null && shareCount == META_NOT_LOADED) {
+            this.getFestivalMeta(contentid);
+            shareCount = redisTemplate.execute(SHARE_SCRIPT, keys, String.valueOf(contentid));
+        }
+        if (shareCount == null || shareCount == META_NOT_LOADED) {
+            throw new IllegalStateException("공유 횟수를 반영하지 못했습니다: " + contentid);
+        }
     }
 
     // 밑의 기존 로직 활용하여 유저 있거나 없거나 축제의 좋아요나 공유 횟수 상태 조회(로그인 안해도 보여줌)
@@ -147,8 +168,9 @@ public class FestivalService {
                 .orElse(new FestivalMetaEntity(contentid));
 
         // 4. (중요) DB에서 가져온 데이터를 다음에 또 쓰기 위해 Redis에 저장!
-        redisTemplate.opsForHash().put(festivalMetaKey, "like_count", String.valueOf(metaFromDb.getLikeCount()));
-        redisTemplate.opsForHash().put(festivalMetaKey, "share_count", String.valueOf(metaFromDb.getShareCount()));
+        //    (그 사이 스크립트가 먼저 채웠다면 Redis 쪽 값이 최신이므로 덮어쓰지 않습니다.)
+        redisTemplate.opsForHash().putIfAbsent(festivalMetaKey, "like_count", String.valueOf(metaFromDb.getLikeCount()));
+        redisTemplate.opsForHash().putIfAbsent(festivalMetaKey, "share_count", String.valueOf(metaFromDb.getShareCount()));
 
         return metaFromDb;
     }
@@ -164,14 +186,14 @@ public class FestivalService {
             return new ArrayList<>(); // 좋아요 누른 사람이 없으면 빈 리스트 반환
         }
 
-        // 2. 사용자 이름 목록으로 DB에서 실제 사용자 정보(UserEntity)를 한 번에 조회합니다.
-        List<UserEntity> users = userRepository.findByUsernameIn(new ArrayList<>(usernames));
+        // 2. 사용자 이름 목록으로 프로필을 한 번에 조회합니다. (캐시에 없는 사람만 DB 에서 한 번에 읽음)
+        Map<String, UserProfileDTO> profiles = userProfileCache.getAll(usernames);
 
-        // 3. DB 조회 결과를 최종 DTO 리스트로 변환합니다.
-        return users.stream()
-                .map(userEntity -> new LikedUserDTO(
-                        userEntity.getUsername(),
-                        userEntity.getNickname()
+        // 3. 조회 결과를 최종 DTO 리스트로 변환합니다.
+        return profiles.values().stream()
+                .map(profile -> new LikedUserDTO(
+                        profile.getUsername(),
+                        profile.getNickname()
                 ))
                 .collect(Collectors.toList());
     }
@@ -185,36 +207,29 @@ public class FestivalService {
             return Collections.emptyList();
         }
 
-        // 2. 각 ID를 사용하여 외부 API를 호출하고, 결과를 DTO 리스트로 변환합니다.
+        // 2. 로컬 축제 카탈로그(festival_catalog)에서 한 번에 조회합니다.
+        List<Long> ids = likedFestivalIds.stream().map(Long::valueOf).toList();
+        Map<Long, FestivalCatalogEntity> catalog = festivalCatalogRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(FestivalCatalogEntity::getContentid, Function.identity()));
+
+        // 3. 카탈로그에 아직 없는 축제만 외부 API 로 조회합니다.
         //    하나의 API 호출이 실패하더라도 전체가 멈추지 않도록 null을 필터링합니다.
-        return likedFestivalIds.parallelStream() // ✨ 병렬 처리로 여러 API를 동시에 호출하여 속도 향상
-                .map(this::fetchFestivalDetailsFromApi) // 각 ID에 대해 API 호출
+        return likedFestivalIds.stream()
+                .map(contentid -> {
+                    FestivalCatalogEntity festival = catalog.get(Long.valueOf(contentid));
+                    return festival != null
+                            ? new MyLikedFestivalDTO(contentid, festival.getTitle(), festival.getFirstimage(), festival.getAddr1())
+                            : fetchFestivalDetailsFromApi(contentid);
+                })
                 .filter(Objects::nonNull) // 호출 실패(null)한 결과는 걸러냄
                 .collect(Collectors.toList());
     }
 
     private MyLikedFestivalDTO fetchFestivalDetailsFromApi(String contentid) {
-        // 1. URI를 안전하게 생성하기 위해 UriComponentsBuilder를 사용합니다.
-        final String BASE_URL = "https://apis.data.go.kr/B551011/KorService2/detailCommon2";
-
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(BASE_URL)
-                .queryParam("serviceKey", serviceKey) // 서비스키는 빌더가 알아서 인코딩해줍니다. (이 경우엔 이미 인코딩된 값을 사용)
-                .queryParam("contentId", contentid)
-                .queryParam("MobileOS", "ETC")
-                .queryParam("MobileApp", "AppTest")
-                .queryParam("_type", "json");
-
-        // ✨ RestTemplate은 이미 인코딩된 URI를 그대로 사용하도록 URI 객체를 넘겨줍니다.
-        // build(true)를 하면 서비스키의 %가 %25로 바뀌는 것을 막아줍니다.
-        URI uri = builder.build(true).toUri();
-
-        // 디버깅을 위해 최종 생성된 URL 출력
-        System.out.println("API 호출 URI: " + uri);
-
         try {
-            String jsonResponse = restTemplate.getForObject(uri, String.class);
+            // TourAPI 게이트웨이를 거치므로 캐시에 있으면 원격 호출 없이 바로 받습니다.
+            String jsonResponse = tourApiGateway.get(TourEndpoint.DETAIL_COMMON, Map.of("contentId", contentid));
 
-            System.out.println("API 응답 (JSON): " + jsonResponse);
             JsonNode root = objectMapper.readTree(jsonResponse);
             JsonNode itemNode = root.path("response").path("body").path("items").path("item");
 
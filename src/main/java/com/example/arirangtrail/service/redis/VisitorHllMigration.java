@@ -0,0 +1,72 @@
+package com.example.arirangtrail.service.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HLL 모드로 바꾸기 전에 쌓인 일별 방문자 Set("visitors:{date}")을 HyperLogLog("visitors:hll:{date}")로 옮깁니다.
+ * Set 멤버는 JSON 문자열("\"uuid\"")로 저장되어 있으므로 따옴표를 벗겨서 PFADD 하고, 남은 만료 시간도 그대로 옮긴 뒤 Set 을 지웁니다.
+ * 옮길 Set 이 없으면 아무 일도 하지 않으므로 매 기동 때 실행해도 됩니다.
+ */
+@Slf4j
+@Component
+public class VisitorHllMigration {
+    private static final String DATE_KEY_PATTERN = VisitorService.SET_KEY_PREFIX + "????-??-??";
+
+    // KEYS: Set, HLL / 한 번의 스크립트로 처리하므로 옮기는 도중 들어온 방문도 빠지지 않습니다.
+    private static final RedisScript<Long> MIGRATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('TYPE', KEYS[1]).ok ~= 'set' then return -1 end " +
+            "local members = redis.call('SMEMBERS', KEYS[1]) " +
+            "for i = 1, #members, 1000 do " +
+            "  local batch = {} " +
+            "  for j = i, math.min(i + 999, #members) do " +
+            "    local m = members[j] " +
+            "    if string.sub(m, 1, 1) == '\"' and string.sub(m, -1) == '\"' then m = string.sub(m, 2, -2) end " +
+            "    batch[#batch + 1] = m " +
+            "  end " +
+            "  redis.call('PFADD', KEYS[2], unpack(batch)) " +
+            "end " +
+            "local ttl = redis.call('TTL', KEYS[1]) " +
+            "if ttl > 0 and redis.call('TTL', KEYS[2]) < 0 then redis.call('EXPIRE', KEYS[2], ttl) end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return #members", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean exactMode;
+
+    public VisitorHllMigration(RedisTemplate<String, String> redisTemplate,
+                               @Value("${visitor.count-mode:hll}") String countMode) {
+        this.redisTemplate = redisTemplate;
+        this.exactMode = "exact".equalsIgnoreCase(countMode);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (exactMode) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(DATE_KEY_PATTERN).count(100).build())) {
+            cursor.forEachRemaining(keys::add);
+        }
+
+        for (String setKey : keys) {
+            String date = setKey.substring(VisitorService.SET_KEY_PREFIX.length());
+            Long moved = redisTemplate.execute(MIGRATE_SCRIPT, List.of(setKey, VisitorService.HLL_KEY_PREFIX + date));
+            if (moved != null && moved >= 0) {
+                log.info("방문자 Set -> HLL 변환 - Date: {}, Visitors: {}", date, moved);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.arirangtrail.service.redis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 방문 기록을 요청 스레드에서 Redis 로 보내지 않고 시간 버킷별로 메모리에 모아두는 버퍼.
+ * 짧은 주기(visitor.ingest.flush-interval-ms)마다 모인 방문자 ID 를 한 번의 파이프라인으로 PFADD(시간/일 버킷) 하고,
+ * 같은 파이프라인에서 오늘 방문자 수를 다시 읽어 메모리에 들고 있습니다. 요청당 비용은 Set 에 ID 를 하나 넣는 것뿐입니다.
+ * exact 모드(visitor.count-mode=exact)에서는 일별 Set 에도 SADD 하고 SCARD 로 셉니다.
+ * 만료 시간은 flush 마다 다시 걸기 때문에 버킷의 보관 기간은 마지막으로 기록된 시점부터 셉니다.
+ */
+@Slf4j
+@Component
+public class VisitorIngestBuffer {
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    // exact 모드의 Set 은 기존처럼 JSON 직렬화 템플릿으로 씁니다.
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean exactMode;
+    private final Duration hourlyRetention;
+    private final Duration dailyRetention;
+
+    // 시간 버킷(정시) -> 아직 Redis 에 보내지 않은 방문자 ID (같은 주기 안의 중복은 여기서 걸러짐)
+    private final Map<LocalDateTime, Set<String>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    // 마지막 flush 때 읽은 오늘 방문자 수
+    private volatile DailyCount dailyCount;
+
+    private final Counter flushedVisits;
+
+    public VisitorIngestBuffer(RedisTemplate<String, String> stringRedisTemplate,
+                               RedisTemplate<String, Object> redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${visitor.count-mode:hll}") String countMode,
+                               @Value("${visitor.retention.hourly-days:14}") long hourlyDays,
+                               @Value("${visitor.retention.daily-days:400}") long dailyDays) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.exactMode = "exact".equalsIgnoreCase(countMode);
+        this.hourlyRetention = Duration.ofDays(hourlyDays);
+        this.dailyRetention = Duration.ofDays(dailyDays);
+
+        Gauge.builder("visitor.ingest.pending", depth, AtomicInteger::get).register(meterRegistry);
+        this.flushedVisits = meterRegistry.counter("visitor.ingest.flushed");
+    }
+
+    public void offer(String visitorId, LocalDateTime at) {
+        LocalDateTime hour = at.truncatedTo(ChronoUnit.HOURS);
+        // 빈 버킷은 flush 쪽에서 같은 잠금(compute) 안에서만 지우므로, 여기서 넣은 ID 를 잃지 않습니다.
+        pending.compute(hour, (key, ids) -> {
+            Set<String> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            if (target.add(visitorId)) {
+                depth.incrementAndGet();
+            }
+            return target;
+        });
+    }
+
+    // 오늘 방문자 수. 마지막 flush 때 읽은 값을 쓰고, 아직 없거나 날짜가 바뀌었으면 직접 읽습니다.
+    public long dailyCount() {
+        LocalDate today = LocalDate.now();
+        DailyCount cached = dailyCount;
+        if (cached != null && cached.date.equals(today)) {
+            return cached.count;
+        }
+        Long count = exactMode
+                ? redisTemplate.opsForSet().size(setKey(today))
+                : stringRedisTemplate.opsForHyperLogLog().size(VisitorService.dayKey(today));
+        return count != null ? count : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${visitor.ingest.flush-interval-ms:250}")
+    public void flush() {
+        Map<LocalDateTime, List<String>> batch = drain();
+        try {
+            if (exactMode) {
+                flushExactSets(batch);
+            }
+            flushBuckets(batch);
+        } catch (Exception e) {
+            // PFADD/SADD 는 여러 번 보내도 결과가 같으므로 다음 주기에 통째로 다시 보냅니다.
+            batch.forEach((hour, ids) -> ids.forEach(id -> offer(id, hour)));
+            log.error("방문자 기록 flush 실패 - Pending: {}, Error: {}", depth.get(), e.getMessage());
+        }
+    }
+
+    // 현재 쌓인 ID 를 꺼내면서 지웁니다. 꺼내는 도중 들어온 ID 는 다음 주기에 나갑니다.
+    private Map<LocalDateTime, List<String>> drain() {
+        Map<LocalDateTime, List<String>> batch = new HashMap<>();
+        for (LocalDateTime hour : new ArrayList<>(pending.keySet())) {
+            pending.computeIfPresent(hour, (key, ids) -> {
+                Iterator<String> iterator = ids.iterator();
+                while (iterator.hasNext()) {
+                    batch.computeIfAbsent(hour, h -> new ArrayList<>()).add(iterator.next());
+                    iterator.remove();
+                    depth.decrementAndGet();
+                }
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        return batch;
+    }
+
+    // 시간/일 버킷 PFADD + 만료 시간, 그리고 오늘 방문자 수 조회까지 한 번의 파이프라인으로 보냅니다.
+    private void flushBuckets(Map<LocalDateTime, List<String>> batch) {
+        LocalDate today = LocalDate.now();
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                batch.forEach((hour, ids) -> {
+                    Object[] values = ids.toArray();
+                    String hourKey = VisitorService.hourKey(hour);
+                    String dayKey = VisitorService.dayKey(hour.toLocalDate());
+                    operations.opsForHyperLogLog().add(hourKey, values);
+                    operations.expire(hourKey, hourlyRetention);
+                    operations.opsForHyperLogLog().add(dayKey, values);
+                    operations.expire(dayKey, dailyRetention);
+                });
+                if (!exactMode) {
+                    operations.opsForHyperLogLog().size(VisitorService.dayKey(today));
+                }
+                return null;
+            }
+        });
+        batch.values().forEach(ids -> flushedVisits.increment(ids.size()));
+        if (!exactMode && !results.isEmpty() && results.get(results.size() - 1) instanceof Number count) {
+            dailyCount = new DailyCount(today, count.longValue());
+        }
+    }
+
+    private void flushExactSets(Map<LocalDateTime, List<String>> batch) {
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, Set<Object>> byDay = new HashMap<>();
+        batch.forEach((hour, ids) -> byDay.computeIfAbsent(hour.toLocalDate(), day -> new HashSet<>()).addAll(ids));
+
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                byDay.forEach((day, ids) -> {
+                    operations.opsForSet().add(setKey(day), ids.toArray());
+                    operations.expire(setKey(day), Duration.ofDays(1));
+                });
+                operations.opsForSet().size(setKey(today));
+                return null;
+            }
+        });
+        if (!results.isEmpty() && results.get(results.size() - 1) instanceof Number count) {
+            dailyCount = new DailyCount(today, count.longValue());
+        }
+    }
+
+    private static String setKey(LocalDate day) {
+        return VisitorService.SET_KEY_PREFIX + day.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    // 종료 전에 남은 방문 기록을 보냅니다.
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private record DailyCount(LocalDate date, long count) {
+    }
+}
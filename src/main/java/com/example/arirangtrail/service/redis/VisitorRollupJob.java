@@ -0,0 +1,67 @@
+package com.example.arirangtrail.service.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 일 방문자 HLL 을 주/월 HLL 로 PFMERGE 합니다.
+ * PFMERGE 는 합집합이라 같은 날을 여러 번 합쳐도 결과가 같으므로, 주기마다 어제와 오늘을 다시 합칩니다. (서버가 여러 대여도 잠금 불필요)
+ * 기동 직후 첫 실행에서는 서버가 내려가 있던 동안 빠졌을 수 있는 최근 며칠(visitor.rollup.catch-up-days)도 함께 합칩니다.
+ */
+@Slf4j
+@Component
+public class VisitorRollupJob {
+    // KEYS: 일, 주, 월 / ARGV: 주 ttl(초), 월 ttl(초)
+    private static final RedisScript<Long> ROLLUP_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('PFMERGE', KEYS[2], KEYS[2], KEYS[1]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "redis.call('PFMERGE', KEYS[3], KEYS[3], KEYS[1]) " +
+            "redis.call('EXPIRE', KEYS[3], ARGV[2]) " +
+            "return 1", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration weeklyRetention;
+    private final Duration monthlyRetention;
+    private final int catchUpDays;
+    private volatile boolean caughtUp;
+
+    public VisitorRollupJob(RedisTemplate<String, String> redisTemplate,
+                            @Value("${visitor.retention.weekly-days:730}") long weeklyDays,
+                            @Value("${visitor.retention.monthly-days:1825}") long monthlyDays,
+                            @Value("${visitor.rollup.catch-up-days:7}") int catchUpDays) {
+        this.redisTemplate = redisTemplate;
+        this.weeklyRetention = Duration.ofDays(weeklyDays);
+        this.monthlyRetention = Duration.ofDays(monthlyDays);
+        this.catchUpDays = Math.max(1, catchUpDays);
+    }
+
+    @Scheduled(fixedDelayString = "${visitor.rollup.interval-ms:300000}")
+    public void rollup() {
+        try {
+            LocalDate today = LocalDate.now();
+            int days = caughtUp ? 1 : catchUpDays;
+            for (int i = days; i >= 0; i--) {
+                merge(today.minusDays(i));
+            }
+            caughtUp = true;
+        } catch (Exception e) {
+            log.error("방문자 주/월 롤업 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    private void merge(LocalDate day) {
+        redisTemplate.execute(ROLLUP_SCRIPT,
+                List.of(VisitorService.dayKey(day), VisitorService.weekKey(day), VisitorService.monthKey(day)),
+                String.valueOf(weeklyRetention.toSeconds()), String.valueOf(monthlyRetention.toSeconds()));
+    }
+}
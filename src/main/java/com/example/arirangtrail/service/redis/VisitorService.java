@@ -1,30 +1,52 @@
 package com.example.arirangtrail.service.redis;
 
+import com.example.arirangtrail.data.dto.visitor.VisitorStatsDTO;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
 
+/**
+ * 방문자 수 집계.
+ * 방문 기록은 시간 버킷 "visitors:hll:hour:{yyyy-MM-ddTHH}" 과 일 버킷 "visitors:hll:{yyyy-MM-dd}" HyperLogLog 에 PFADD 하고,
+ * 주("visitors:hll:week:{YYYY-Www}")/월("visitors:hll:month:{yyyy-MM}") 버킷은 VisitorRollupJob 이 일 버킷을 PFMERGE 해서 만듭니다.
+ * 버킷 하나는 방문자가 아무리 많아도 약 12KB 이고, 오차는 0.81% 정도입니다. 해상도별 보관 기간은 visitor.retention.* 로 정합니다.
+ * 오늘 방문자 수는 방문자가 적어 정확한 수가 필요하면 visitor.count-mode=exact 로 예전처럼 Set "visitors:{date}" 에 SADD/SCARD 합니다.
+ * (exact 모드에서도 통계용 HLL 버킷은 같이 기록합니다)
+ * 방문 기록과 오늘 방문자 수는 VisitorIngestBuffer 를 거치므로 요청 처리 중에는 Redis 를 호출하지 않습니다.
+ */
 @Service
 @RequiredArgsConstructor
 public class VisitorService {
-    // 기존 RedisConfig에 정의된 <String, Object> 타입의 RedisTemplate을 주입받습니다.
-    private final RedisTemplate<String, Object> redisTemplate;
+    static final String HLL_KEY_PREFIX = "visitors:hll:";
+    static final String SET_KEY_PREFIX = "visitors:";
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int MAX_BUCKETS = 1000;
+
+    public enum Granularity { HOUR, DAY, WEEK, MONTH }
+
+    // HLL 버킷에는 방문자 ID 를 JSON 으로 감싸지 않고 그대로 넣습니다.
+    private final RedisTemplate<String, String> stringRedisTemplate;
+    private final VisitorIngestBuffer visitorIngestBuffer;
     // 쿠키 삽입으로 방문자 구분할 예정임. 우리는 비지터 쿠키 네임 해서만 적용하면 브라우저에서 사이트의 이름 꼬리표는 붙은채로 저장됨.
     private static final String VISITOR_COOKIE_NAME = "_visitor_id";
 
     public void recordVisitor(HttpServletRequest request, HttpServletResponse response) {
-        // 1. 오늘 날짜로 Redis Key 생성 (예: "visitors:2025-07-30")
-        String today = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String dailyVisitorKey = "visitors:" + today;
+        // 1. 현재 시각 기준 버킷 (예: "2025-07-30T14", "2025-07-30")
+        LocalDateTime now = LocalDateTime.now();
 
         // 2. 쿠키에서 방문자 ID 가져오기
         String visitorId = getVisitorIdFromCookie(request);
@@ -36,23 +58,122 @@ public class VisitorService {
             addVisitorCookie(response, visitorId);
         }
 
-        // 4. Redis Set에 방문자 ID 추가
-        //opsForSet().add는 자바식 레디스의 SADD 명령어로, 결과는 추가된 멤버의 수입니다. (새 멤버면 1, 이미 있으면 0을 반환시키므로 처음인지 연계)
-        // 지금 구조는 다 (키,(중복안되는키들,더미값)) 형태의 set 구조임
-        Long newVisitors = redisTemplate.opsForSet().add(dailyVisitorKey, visitorId);
+        // 4. Redis 에는 바로 쓰지 않고 버퍼에만 넣습니다. (VisitorIngestBuffer 가 짧은 주기로 모아서 PFADD/SADD)
+        visitorIngestBuffer.offer(visitorId, now);
+    }
+
+    // 오늘 하루만의 방문객 수 반환함. 버퍼가 flush 때마다 새로 읽어 둔 값이라 최대 한 주기만큼 늦을 수 있습니다.
+    public Long getDailyVisitorCount() {
+        return visitorIngestBuffer.dailyCount();
+    }
+
+    // [from, to] 기간의 버킷별 방문자 수와 기간 전체 순 방문자 수. 버킷 값은 미리 만들어 둔 HLL 을 PFCOUNT 만 합니다.
+    public VisitorStatsDTO getStats(LocalDate from, LocalDate to, Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from 은 to 보다 늦을 수 없습니다.");
+        }
+        Map<String, String> bucketKeys = bucketKeys(from, to, granularity); // 라벨 -> 키
+        if (bucketKeys.size() > MAX_BUCKETS) {
+            throw new IllegalArgumentException("버킷이 너무 많습니다. (최대 " + MAX_BUCKETS + "개) 기간을 줄이거나 단위를 키워주세요.");
+        }
+
+        // 버킷별 PFCOUNT 를 한 번의 파이프라인으로
+        List<String> keys = new ArrayList<>(bucketKeys.values());
+        List<Object> counts = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (String key : keys) {
+                    operations.opsForHyperLogLog().size(key);
+                }
+                return null;
+            }
+        });
+        List<VisitorStatsDTO.Bucket> buckets = new ArrayList<>();
+        int i = 0;
+        for (String label : bucketKeys.keySet()) {
+            Object count = counts.get(i++);
+            buckets.add(new VisitorStatsDTO.Bucket(label, count instanceof Number number ? number.longValue() : 0L));
+        }
 
-        // 5. Redis Key에 만료 시간 1일 설정 (오늘 처음 생성된 경우에만)
-        if (newVisitors != null && newVisitors == 1L) {// L은 롱 타입일치위해 굳이 씀
-            redisTemplate.expire(dailyVisitorKey, 1, TimeUnit.DAYS);
+        // 기간 전체: 기간을 가장 큰 버킷들로 덮어서 PFCOUNT 한 번으로 합집합을 셉니다.
+        Long total = stringRedisTemplate.opsForHyperLogLog().size(coveringKeys(from, to).toArray(new String[0]));
+        return new VisitorStatsDTO(granularity.name().toLowerCase(), from, to, total != null ? total : 0L, buckets);
+    }
+
+    private Map<String, String> bucketKeys(LocalDate from, LocalDate to, Granularity granularity) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        switch (granularity) {
+            case HOUR -> {
+                for (LocalDateTime hour = from.atStartOfDay(); hour.isBefore(to.plusDays(1).atStartOfDay()) && keys.size() <= MAX_BUCKETS; hour = hour.plusHours(1)) {
+                    keys.put(hour.format(HOUR_FORMAT), hourKey(hour));
+                }
+            }
+            case DAY -> {
+                for (LocalDate day = from; !day.isAfter(to) && keys.size() <= MAX_BUCKETS; day = day.plusDays(1)) {
+                    keys.put(day.format(DateTimeFormatter.ISO_LOCAL_DATE), dayKey(day));
+                }
+            }
+            case WEEK -> {
+                for (LocalDate week = weekStart(from); !week.isAfter(to) && keys.size() <= MAX_BUCKETS; week = week.plusWeeks(1)) {
+                    keys.put(weekLabel(week), weekKey(week));
+                }
+            }
+            case MONTH -> {
+                for (LocalDate month = from.withDayOfMonth(1); !month.isAfter(to) && keys.size() <= MAX_BUCKETS; month = month.plusMonths(1)) {
+                    keys.put(month.format(MONTH_FORMAT), monthKey(month));
+                }
+            }
         }
+        return keys;
     }
 
-    // 오늘 하루만의 방문객 수 반환함
-    public Long getDailyVisitorCount() {
-        String today = LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE);
-        String dailyVisitorKey = "visitors:" + today;
-        // SCARD 명령어로 Set의 크기를 가져옵니다. 키에 쌓인 총 원소수를 가져옴
-        return redisTemplate.opsForSet().size(dailyVisitorKey);
+    // [from, to] 를 통째로 들어가는 월 -> 주 -> 일 버킷 순으로 덮습니다.
+    // 오늘이 포함된 주/월은 아직 롤업 중이라 일 버킷으로 덮습니다.
+    private List<String> coveringKeys(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        List<String> keys = new ArrayList<>();
+        LocalDate day = from;
+        while (!day.isAfter(to)) {
+            LocalDate monthEnd = day.withDayOfMonth(day.lengthOfMonth());
+            LocalDate weekEnd = day.plusDays(6);
+            if (day.getDayOfMonth() == 1 && !monthEnd.isAfter(to) && monthEnd.isBefore(today)) {
+                keys.add(monthKey(day));
+                day = monthEnd.plusDays(1);
+            } else if (day.getDayOfWeek() == DayOfWeek.MONDAY && !weekEnd.isAfter(to) && weekEnd.isBefore(today)) {
+                keys.add(weekKey(day));
+                day = weekEnd.plusDays(1);
+            } else {
+                keys.add(dayKey(day));
+                day = day.plusDays(1);
+            }
+        }
+        return keys;
+    }
+
+    static String hourKey(LocalDateTime time) {
+        return HLL_KEY_PREFIX + "hour:" + time.format(HOUR_FORMAT);
+    }
+
+    static String dayKey(LocalDate date) {
+        return HLL_KEY_PREFIX + date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    static String weekKey(LocalDate date) {
+        return HLL_KEY_PREFIX + "week:" + weekLabel(date);
+    }
+
+    static String monthKey(LocalDate date) {
+        return HLL_KEY_PREFIX + "month:" + date.format(MONTH_FORMAT);
+    }
+
+    // ISO 주차 (월요일 시작). 예: 2025-W31
+    private static String weekLabel(LocalDate date) {
+        return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
     }
 
     // 방문자에게 쿠키 받기
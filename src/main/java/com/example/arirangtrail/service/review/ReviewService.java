@@ -1,29 +1,29 @@
 package com.example.arirangtrail.service.review;
 
 import com.example.arirangtrail.component.review.FileStore;
-import com.example.arirangtrail.data.dto.PaginationDto;
+import com.example.arirangtrail.component.user.UserProfileCache;
 import com.example.arirangtrail.data.dto.review.*;
+import com.example.arirangtrail.data.dto.user.UserProfileDTO;
 import com.example.arirangtrail.data.entity.ReviewEntity;
 import com.example.arirangtrail.data.entity.ReviewphotoEntity;
 import com.example.arirangtrail.data.repository.ReviewRepository;
 import com.example.arirangtrail.data.repository.ReviewphotoRepository;
-import com.example.arirangtrail.data.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.transaction.annotation.Transactional; // Spring의 @Transactional 임포트
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -39,111 +39,179 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ReviewphotoRepository reviewphotoRepository;
     private final FileStore fileStore;
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
+    private final ReviewStatsService reviewStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int FEED_MAX_SIZE = 50;
+    private static final int EXCERPT_LENGTH = 120;
 
     @Value("${cloud.aws.s3.bucket}")
     private String bucket;
 
-    @Transactional
+    // 사진은 트랜잭션 밖에서 먼저 (동시에) 올리고, DB 저장이 실패하면 올린 사진을 지웁니다.
+    // S3 업로드 시간 동안 DB 커넥션을 잡고 있지 않습니다.
     public ReviewEntity createReview(ReviewCreateRequestDto createDto, List<MultipartFile> photoFiles) throws IOException {
-        ReviewEntity reviewEntity = ReviewEntity.builder()
-                .username(createDto.getUsername())
-                .contentid(createDto.getContentid())
-                .contenttitle(createDto.getContenttitle())
-                .title(createDto.getTitle())
-                .content(createDto.getContent())
-                .rating(createDto.getRating())
-                .visitdate(createDto.getVisitdate())
-                .build();
-
-        ReviewEntity savedReview = reviewRepository.save(reviewEntity);
-
-        if (photoFiles != null && !photoFiles.isEmpty()) {
-            log.info("createReview: 업로드할 파일 개수: {}", photoFiles.size());
-
-            List<String> photoUrls = fileStore.storeFiles(photoFiles, bucket);
+        List<String> photoUrls = uploadPhotos(photoFiles);
 
-            log.info("createReview: S3에 업로드된 URL 개수: {}", photoUrls.size());
-            photoUrls.forEach(url -> log.info("createReview: 업로드된 URL: {}", url));
+        try {
+            return transactionTemplate.execute(status -> {
+                ReviewEntity reviewEntity = ReviewEntity.builder()
+                        .username(createDto.getUsername())
+                        .contentid(createDto.getContentid())
+                        .contenttitle(createDto.getContenttitle())
+                        .title(createDto.getTitle())
+                        .content(createDto.getContent())
+                        .rating(createDto.getRating())
+                        .visitdate(createDto.getVisitdate())
+                        .build();
 
-            List<ReviewphotoEntity> reviewPhotos = photoUrls.stream()
-                    .map(url -> {
-                        ReviewphotoEntity newPhoto = new ReviewphotoEntity();
-                        newPhoto.setImageurl(url);
-                        newPhoto.setReview(savedReview);
-                        return newPhoto;
-                    })
-                    .collect(Collectors.toList());
+                ReviewEntity savedReview = reviewRepository.save(reviewEntity);
+                reviewStatsService.onReviewCreated(savedReview.getContentid(), savedReview.getRating());
 
-            savedReview.changePhotos(reviewPhotos);
-            log.info("createReview: ReviewEntity에 사진 {}개가 설정되었습니다.", reviewPhotos.size());
-        } else {
-            log.info("createReview: 업로드할 파일이 없습니다.");
+                if (!photoUrls.isEmpty()) {
+                    savedReview.changePhotos(toPhotoEntities(photoUrls, savedReview));
+                    log.info("createReview: ReviewEntity에 사진 {}개가 설정되었습니다.", photoUrls.size());
+                }
+                return savedReview;
+            });
+        } catch (RuntimeException e) {
+            fileStore.deleteFiles(photoUrls, bucket);
+            throw e;
         }
-        return savedReview;
     }
 
-    @Transactional
+    // newPhotoFiles 가 null 이면 사진은 그대로 두고, 빈 목록이면 모두 지웁니다.
+    // 새 사진은 트랜잭션 전에 올리고, 기존 사진 파일은 커밋이 끝난 뒤에 지웁니다.
     public void updateReview(ReviewUpdateRequestDto updateDto, List<MultipartFile> newPhotoFiles) throws IOException {
         Long reviewId = updateDto.getReviewId();
-        ReviewEntity reviewEntity = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new EntityNotFoundException("리뷰를 찾을 수 없습니다. ID: " + reviewId));
+        List<String> newPhotoUrls = uploadPhotos(newPhotoFiles);
 
-        reviewEntity.setTitle(updateDto.getTitle());
-        reviewEntity.setContent(updateDto.getContent());
-        reviewEntity.setRating(updateDto.getRating());
-        reviewEntity.setVisitdate(updateDto.getVisitdate());
+        List<String> oldPhotoUrls;
+        try {
+            oldPhotoUrls = transactionTemplate.execute(status -> {
+                // 기존 평점을 빼고 새 평점을 더하므로, 동시에 들어온 수정이 같은 기존 평점을 읽지 않게 잠그고 읽습니다.
+                ReviewEntity reviewEntity = reviewRepository.findByIdForUpdate(reviewId)
+                        .orElseThrow(() -> new EntityNotFoundException("리뷰를 찾을 수 없습니다. ID: " + reviewId));
 
-        if (newPhotoFiles != null) {
-            List<ReviewphotoEntity> oldPhotos = reviewEntity.getReviewphotos();
-            if (oldPhotos != null && !oldPhotos.isEmpty()) {
-                oldPhotos.forEach(photo -> fileStore.deleteFile(photo.getImageurl(), bucket));
-            }
+                reviewStatsService.onReviewUpdated(reviewEntity.getContentid(), reviewEntity.getRating(), updateDto.getRating());
+                reviewEntity.setTitle(updateDto.getTitle());
+                reviewEntity.setContent(updateDto.getContent());
+                reviewEntity.setRating(updateDto.getRating());
+                reviewEntity.setVisitdate(updateDto.getVisitdate());
 
-            if (!newPhotoFiles.isEmpty()) {
-                List<String> newPhotoUrls = fileStore.storeFiles(newPhotoFiles, bucket);
-                List<ReviewphotoEntity> newReviewPhotos = newPhotoUrls.stream()
-                        .map(url -> {
-                            ReviewphotoEntity newPhoto = new ReviewphotoEntity();
-                            newPhoto.setImageurl(url);
-                            newPhoto.setReview(reviewEntity);
-                            return newPhoto;
-                        })
-                        .collect(Collectors.toList());
-                reviewEntity.changePhotos(newReviewPhotos);
-            } else {
-                reviewEntity.changePhotos(new ArrayList<>());
-            }
+                if (newPhotoFiles == null) {
+                    return List.<String>of();
+                }
+                List<String> replaced = reviewEntity.getReviewphotos().stream()
+                        .map(ReviewphotoEntity::getImageurl)
+                        .toList();
+                reviewEntity.changePhotos(toPhotoEntities(newPhotoUrls, reviewEntity));
+                return replaced;
+            });
+        } catch (RuntimeException e) {
+            fileStore.deleteFiles(newPhotoUrls, bucket);
+            throw e;
         }
+        fileStore.deleteFiles(oldPhotoUrls, bucket);
     }
 
-    @Transactional
+    // DB 에서 지운 뒤에 사진 파일을 지웁니다.
     public void deleteReview(Long reviewId) {
-        ReviewEntity reviewEntity = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new EntityNotFoundException("리뷰를 찾을 수 없습니다. ID: " + reviewId));
+        List<String> photoUrls = transactionTemplate.execute(status -> {
+            ReviewEntity reviewEntity = reviewRepository.findByIdForUpdate(reviewId)
+                    .orElseThrow(() -> new EntityNotFoundException("리뷰를 찾을 수 없습니다. ID: " + reviewId));
+
+            List<String> urls = reviewEntity.getReviewphotos().stream()
+                    .map(ReviewphotoEntity::getImageurl)
+                    .toList();
+            reviewRepository.delete(reviewEntity);
+            reviewStatsService.onReviewDeleted(reviewEntity.getContentid(), reviewEntity.getRating());
+            return urls;
+        });
+        fileStore.deleteFiles(photoUrls, bucket);
+    }
 
-        List<ReviewphotoEntity> photos = reviewEntity.getReviewphotos();
-        if (photos != null && !photos.isEmpty()) {
-            photos.forEach(photo -> fileStore.deleteFile(photo.getImageurl(), bucket));
+    private List<String> uploadPhotos(List<MultipartFile> photoFiles) throws IOException {
+        if (photoFiles == null || photoFiles.isEmpty()) {
+            return List.of();
         }
+        log.info("업로드할 파일 개수: {}", photoFiles.size());
+        List<String> photoUrls = fileStore.storeFiles(photoFiles, bucket);
+        log.info("S3에 업로드된 URL 개수: {}", photoUrls.size());
+        return photoUrls;
+    }
 
-        reviewRepository.delete(reviewEntity);
+    private List<ReviewphotoEntity> toPhotoEntities(List<String> photoUrls, ReviewEntity review) {
+        return photoUrls.stream()
+                .map(url -> {
+                    ReviewphotoEntity newPhoto = new ReviewphotoEntity();
+                    newPhoto.setImageurl(url);
+                    newPhoto.setReview(review);
+                    return newPhoto;
+                })
+                .collect(Collectors.toList());
     }
 
-    public ReviewListResponseDto getAllReviews(Pageable pageable) {
-        Page<ReviewEntity> reviewPage = reviewRepository.findAll(pageable);
-        Page<ReviewResponseDto> reviewDtoPage = reviewPage.map(this::convertToDto);
+    // 리뷰 피드 (최신순). cursor 는 이전 응답의 nextCursor 이고, 없으면 첫 페이지입니다.
+    // 본문은 앞부분만, 사진은 첫 장만 담은 요약을 돌려줍니다. (전체 내용은 getReviewById)
+    @Transactional(readOnly = true)
+    public ReviewFeedResponseDto getReviewFeed(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), FEED_MAX_SIZE);
+        Limit limit = Limit.of(pageSize + 1); // 하나 더 읽어서 다음 페이지가 있는지 봅니다.
+        List<ReviewRepository.ReviewSummaryView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findFeed(EXCERPT_LENGTH, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = reviewRepository.findFeedAfter(after.createdat(), after.reviewId(), EXCERPT_LENGTH, limit);
+        }
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        if (rows.isEmpty()) {
+            return new ReviewFeedResponseDto(List.of(), null);
+        }
+
+        // 첫 사진은 IN 쿼리 한 번, 작성자는 프로필 캐시 getAll 한 번으로 가져옵니다.
+        Map<Long, String> thumbnails = new HashMap<>();
+        for (Object[] row : reviewphotoRepository.findFirstPhotoUrls(rows.stream().map(ReviewRepository.ReviewSummaryView::getId).toList())) {
+            thumbnails.put((Long) row[0], (String) row[1]);
+        }
+        Map<String, UserProfileDTO> authors = userProfileCache.getAll(
+                rows.stream().map(ReviewRepository.ReviewSummaryView::getUsername).toList());
 
-        return new ReviewListResponseDto(
-                reviewDtoPage.getContent(),
-                new PaginationDto(reviewDtoPage)
-        );
+        List<ReviewSummaryDto> reviews = rows.stream()
+                .map(row -> {
+                    UserProfileDTO author = authors.get(row.getUsername());
+                    if (author == null) {
+                        throw new EntityNotFoundException("리뷰 작성자를 찾을 수 없습니다: " + row.getUsername());
+                    }
+                    return ReviewSummaryDto.builder()
+                            .reviewId(row.getId())
+                            .username(author.getNickname())
+                            .contentId(row.getContentid())
+                            .contentTitle(row.getContenttitle())
+                            .title(row.getTitle())
+                            .excerpt(row.getExcerpt())
+                            .rating(row.getRating())
+                            .thumbnailUrl(thumbnails.get(row.getId()))
+                            .createdAt(row.getCreatedat())
+                            .build();
+                })
+                .collect(Collectors.toList());
+
+        ReviewRepository.ReviewSummaryView last = rows.get(rows.size() - 1);
+        String nextCursor = hasMore ? new FeedCursor(last.getCreatedat(), last.getId()).encode() : null;
+        return new ReviewFeedResponseDto(reviews, nextCursor);
     }
 
+    @Transactional(readOnly = true)
     public ReviewResponseDto getReviewById(Long reviewId) {
         ReviewEntity reviewEntity = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found with ID: " + reviewId));
-        return convertToDto(reviewEntity);
+        return convertToDtos(List.of(reviewEntity)).get(0);
     }
 
     /**
@@ -155,39 +223,46 @@ public class ReviewService {
     @Transactional(readOnly = true) // 읽기 전용 트랜잭션으로 설정하여 성능 최적화
     public List<ReviewResponseDto> getReviewsByUsername(String username) {
         List<ReviewEntity> reviewEntities = reviewRepository.findByUsernameOrderByCreatedatDesc(username);
-        return reviewEntities.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(reviewEntities);
     }
 
+    // 리뷰를 읽지 않고 축제별 집계(festival_review_stats)에서 평균을 가져옵니다. 리뷰가 없으면 0.0
     public Double findAverageRatingByContentid(Long contentid) {
-        List<ReviewEntity> reviews = reviewRepository.findByContentid(contentid);
+        return reviewStatsService.getRating(contentid).getAverageRating();
+    }
 
-        if (reviews.isEmpty()) {
-            return 0.0; // ⭐ 리뷰 없으면 0.0 반환
-        }
+    public Map<Long, FestivalRatingDTO> findRatingsByContentids(List<Long> contentids) {
+        return reviewStatsService.getRatings(contentids);
+    }
 
-        // 평점 평균 계산
-        double average = reviews.stream()
-                .mapToDouble(r -> r.getRating().doubleValue())
-                .average()
-                .orElse(0.0); // fallback (사실상 위 isEmpty 조건으로 인해 여기엔 안 옴)
+    // 리뷰 목록을 DTO 로 바꿉니다. 사진은 IN 쿼리 한 번, 작성자는 프로필 캐시 getAll 한 번으로 가져옵니다.
+    // (리뷰마다 사진 컬렉션 lazy 로딩 + 작성자 조회를 하지 않음)
+    private List<ReviewResponseDto> convertToDtos(List<ReviewEntity> entities) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        List<Long> reviewIds = entities.stream().map(ReviewEntity::getId).toList();
+        Map<Long, List<ReviewPhotoResponseDto>> photosByReview = reviewphotoRepository.findByReview_IdInOrderByIdAsc(reviewIds).stream()
+                .collect(Collectors.groupingBy(photo -> photo.getReview().getId(),
+                        Collectors.mapping(photo -> ReviewPhotoResponseDto.builder()
+                                .photoId(photo.getId())
+                                .photoUrl(photo.getImageurl())
+                                .build(), Collectors.toList())));
+        Map<String, UserProfileDTO> authors = userProfileCache.getAll(
+                entities.stream().map(ReviewEntity::getUsername).toList());
 
-        return average;
+        return entities.stream()
+                .map(entity -> convertToDto(entity, photosByReview.getOrDefault(entity.getId(), List.of()), authors.get(entity.getUsername())))
+                .collect(Collectors.toList());
     }
-    private ReviewResponseDto convertToDto(ReviewEntity entity) {
-        List<ReviewPhotoResponseDto> photos = (entity.getReviewphotos() != null) ?
-                entity.getReviewphotos().stream()
-                        .map(photoEntity -> ReviewPhotoResponseDto.builder()
-                                .photoId(photoEntity.getId())
-                                .photoUrl(photoEntity.getImageurl())
-                                .build())
-                        .collect(Collectors.toList())
-                : List.of();
-        String nickname = Objects.requireNonNull(this.userRepository.findById(entity.getUsername()).orElse(null)).getNickname();
+
+    private ReviewResponseDto convertToDto(ReviewEntity entity, List<ReviewPhotoResponseDto> photos, UserProfileDTO author) {
+        if (author == null) {
+            throw new EntityNotFoundException("리뷰 작성자를 찾을 수 없습니다: " + entity.getUsername());
+        }
         return ReviewResponseDto.builder()
                 .reviewId(entity.getId())
-                .username(nickname)
+                .username(author.getNickname())
                 .contentId(entity.getContentid())
                 .contentTitle(entity.getContenttitle())
                 .title(entity.getTitle())
@@ -199,4 +274,22 @@ public class ReviewService {
                 .photos(photos)
                 .build();
     }
+
+    // 피드 커서: 마지막으로 받은 리뷰의 (createdat, reviewid). 클라이언트에는 base64url 문자열로만 보입니다.
+    private record FeedCursor(LocalDateTime createdat, Long reviewId) {
+        String encode() {
+            String raw = createdat + "|" + reviewId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + cursor);
+            }
+        }
+    }
 }
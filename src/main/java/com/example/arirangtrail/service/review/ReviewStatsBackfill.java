@@ -0,0 +1,54 @@
+package com.example.arirangtrail.service.review;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * festival_review_stats 가 생기기 전에 쓰인 리뷰들로 집계를 한 번 채웁니다.
+ * 테이블이 비었는지로 판단하면 배포 직후 먼저 들어온 리뷰 한 건 때문에 영영 건너뛰므로, 끝나면 Redis 에 마커 키를 남겨서 판단합니다.
+ * (Redis 가 비워져 마커가 없어져도 reviews 기준으로 다시 계산할 뿐이라 결과는 같습니다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewStatsBackfill {
+    static final String MARKER_KEY = "migration:festival_review_stats";
+
+    // 그 사이 리뷰 작성으로 먼저 생긴 행은 reviews 기준 값으로 덮어씁니다. (별점 칸은 ReviewStatsService.star 와 같은 기준)
+    private static final String BACKFILL_SQL =
+            "INSERT INTO festival_review_stats (contentid, reviewcount, ratingsum, star1, star2, star3, star4, star5) " +
+            "SELECT contentid, COUNT(*), SUM(rating), " +
+            "SUM(LEAST(GREATEST(ROUND(rating), 1), 5) = 1), SUM(LEAST(GREATEST(ROUND(rating), 1), 5) = 2), " +
+            "SUM(LEAST(GREATEST(ROUND(rating), 1), 5) = 3), SUM(LEAST(GREATEST(ROUND(rating), 1), 5) = 4), " +
+            "SUM(LEAST(GREATEST(ROUND(rating), 1), 5) = 5) " +
+            "FROM reviews GROUP BY contentid " +
+            "ON DUPLICATE KEY UPDATE reviewcount = VALUES(reviewcount), ratingsum = VALUES(ratingsum), " +
+            "star1 = VALUES(star1), star2 = VALUES(star2), star3 = VALUES(star3), star4 = VALUES(star4), star5 = VALUES(star5)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(MARKER_KEY))) {
+            return;
+        }
+        int festivals = jdbcTemplate.update(BACKFILL_SQL);
+        if (festivals > 0) {
+            // 백필 전에 들어온 조회가 0건으로 캐시해 둔 값을 지웁니다.
+            List<String> keys = jdbcTemplate.queryForList("SELECT contentid FROM festival_review_stats", Long.class).stream()
+                    .map(contentid -> ReviewStatsService.KEY_PREFIX + contentid)
+                    .toList();
+            redisTemplate.delete(keys);
+        }
+        redisTemplate.opsForValue().set(MARKER_KEY, "done");
+        log.info("축제별 리뷰 평점 집계 backfill 완료 - Rows: {}", festivals);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.arirangtrail.service.review;
+
+import com.example.arirangtrail.data.dto.review.FestivalRatingDTO;
+import com.example.arirangtrail.data.entity.FestivalReviewStatsEntity;
+import com.example.arirangtrail.data.repository.FestivalReviewStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 축제별 리뷰 평점 집계(festival_review_stats) 관리.
+ * 리뷰 작성/수정/삭제 트랜잭션 안에서 개수/합계/별점 분포를 증감으로 반영하고,
+ * 조회는 festival_meta:{id} 옆의 Redis 해시 "festival_review_stats:{id}" 를 먼저 보고 없을 때만 DB 를 읽습니다.
+ * 집계가 바뀌면 Redis 해시를 지우고(커밋 후 한 번 더) 다음 조회 때 DB 값으로 다시 채웁니다.
+ */
+@Slf4j
+@Service
+public class ReviewStatsService {
+    static final String KEY_PREFIX = "festival_review_stats:";
+    private static final String COUNT_FIELD = "count";
+    private static final String SUM_FIELD = "sum";
+    private static final String STAR_FIELD_PREFIX = "s"; // s1 ~ s5
+
+    // 행이 없으면 만들고, 있으면 증감만 더합니다. (0 아래로는 내려가지 않음)
+    private static final String UPSERT_SQL =
+            "INSERT INTO festival_review_stats (contentid, reviewcount, ratingsum, star1, star2, star3, star4, star5) " +
+            "VALUES (?, GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0)) " +
+            "ON DUPLICATE KEY UPDATE reviewcount = GREATEST(reviewcount + ?, 0), ratingsum = GREATEST(ratingsum + ?, 0), " +
+            "star1 = GREATEST(star1 + ?, 0), star2 = GREATEST(star2 + ?, 0), star3 = GREATEST(star3 + ?, 0), " +
+            "star4 = GREATEST(star4 + ?, 0), star5 = GREATEST(star5 + ?, 0)";
+
+    private final FestivalReviewStatsRepository festivalReviewStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration cacheTtl;
+    private final int bulkMaxIds;
+
+    public ReviewStatsService(FestivalReviewStatsRepository festivalReviewStatsRepository,
+                              JdbcTemplate jdbcTemplate,
+                              RedisTemplate<String, String> redisTemplate,
+                              @Value("${review.stats.cache-ttl-seconds:3600}") long cacheTtlSeconds,
+                              @Value("${review.stats.bulk-max-ids:200}") int bulkMaxIds) {
+        this.festivalReviewStatsRepository = festivalReviewStatsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+        this.bulkMaxIds = bulkMaxIds;
+    }
+
+    public void onReviewCreated(Long contentid, BigDecimal rating) {
+        long[] stars = new long[5];
+        stars[star(rating) - 1]++;
+        apply(contentid, 1, rating, stars);
+    }
+
+    public void onReviewUpdated(Long contentid, BigDecimal oldRating, BigDecimal newRating) {
+        if (oldRating.compareTo(newRating) == 0) {
+            return;
+        }
+        long[] stars = new long[5];
+        stars[star(oldRating) - 1]--;
+        stars[star(newRating) - 1]++;
+        apply(contentid, 0, newRating.subtract(oldRating), stars);
+    }
+
+    public void onReviewDeleted(Long contentid, BigDecimal rating) {
+        long[] stars = new long[5];
+        stars[star(rating) - 1]--;
+        apply(contentid, -1, rating.negate(), stars);
+    }
+
+    // 호출한 쪽(ReviewService)의 트랜잭션에 같이 묶입니다.
+    private void apply(Long contentid, long countDelta, BigDecimal sumDelta, long[] starDeltas) {
+        List<Object> args = new ArrayList<>();
+        args.add(contentid);
+        for (int round = 0; round < 2; round++) { // VALUES 용, ON DUPLICATE KEY UPDATE 용
+            args.add(countDelta);
+            args.add(sumDelta);
+            for (long starDelta : starDeltas) {
+                args.add(starDelta);
+            }
+        }
+        jdbcTemplate.update(UPSERT_SQL, args.toArray());
+        evict(contentid);
+    }
+
+    public FestivalRatingDTO getRating(Long contentid) {
+        return getRatings(List.of(contentid)).get(contentid);
+    }
+
+    // 여러 축제의 평점을 한 번에 (contentid -> 평점, 요청 순서 유지). 리뷰가 없는 축제는 0건으로 채웁니다.
+    public Map<Long, FestivalRatingDTO> getRatings(Collection<Long> contentids) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(contentids));
+        if (ids.size() > bulkMaxIds) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 축제는 최대 " + bulkMaxIds + "개입니다.");
+        }
+
+        List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                for (Long id : ids) {
+                    operations.opsForHash().entries(key(id));
+                }
+                return null;
+            }
+        });
+
+        Map<Long, FestivalRatingDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Map<?, ?> entries = (Map<?, ?>) hashes.get(i);
+            if (entries == null || entries.isEmpty()) {
+                missing.add(ids.get(i));
+            } else {
+                found.put(ids.get(i), fromHash(ids.get(i), entries));
+            }
+        }
+        if (!missing.isEmpty()) {
+            found.putAll(load(missing));
+        }
+
+        Map<Long, FestivalRatingDTO> result = new LinkedHashMap<>();
+        ids.forEach(id -> result.put(id, found.get(id)));
+        return result;
+    }
+
+    // Redis 에 없는 축제만 DB 에서 한 번에 읽고, 리뷰가 없는 축제(0건)까지 함께 캐시합니다.
+    private Map<Long, FestivalRatingDTO> load(List<Long> contentids) {
+        Map<Long, FestivalReviewStatsEntity> rows = festivalReviewStatsRepository.findAllById(contentids).stream()
+                .collect(Collectors.toMap(FestivalReviewStatsEntity::getContentid, Function.identity()));
+
+        Map<Long, FestivalReviewStatsEntity> loaded = new LinkedHashMap<>();
+        for (Long contentid : contentids) {
+            FestivalReviewStatsEntity stats = rows.get(contentid);
+            if (stats == null) {
+                stats = new FestivalReviewStatsEntity();
+                stats.setContentid(contentid);
+            }
+            loaded.put(contentid, stats);
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) {
+                loaded.forEach((contentid, stats) -> {
+                    operations.opsForHash().putAll(key(contentid), toHash(stats));
+                    operations.expire(key(contentid), cacheTtl);
+                });
+                return null;
+            }
+        });
+
+        Map<Long, FestivalRatingDTO> result = new HashMap<>();
+        loaded.forEach((contentid, stats) -> result.put(contentid, toDto(contentid, stats.getReviewcount(), stats.getRatingsum(),
+                new long[]{stats.getStar1(), stats.getStar2(), stats.getStar3(), stats.getStar4(), stats.getStar5()})));
+        return result;
+    }
+
+    // 트랜잭션 안이면 커밋 후에 한 번 더 지워서, 그 사이 읽혀 캐시된 옛 값이 남지 않게 합니다.
+    private void evict(Long contentid) {
+        redisTemplate.delete(key(contentid));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    redisTemplate.delete(key(contentid));
+                }
+            });
+        }
+    }
+
+    private Map<String, String> toHash(FestivalReviewStatsEntity stats) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put(COUNT_FIELD, String.valueOf(stats.getReviewcount()));
+        hash.put(SUM_FIELD, stats.getRatingsum().toPlainString());
+        long[] stars = {stats.getStar1(), stats.getStar2(), stats.getStar3(), stats.getStar4(), stats.getStar5()};
+        for (int i = 0; i < stars.length; i++) {
+            hash.put(STAR_FIELD_PREFIX + (i + 1), String.valueOf(stars[i]));
+        }
+        return hash;
+    }
+
+    private FestivalRatingDTO fromHash(Long contentid, Map<?, ?> entries) {
+        long[] stars = new long[5];
+        for (int i = 0; i < stars.length; i++) {
+            Object value = entries.get(STAR_FIELD_PREFIX + (i + 1));
+            stars[i] = value != null ? Long.parseLong(value.toString()) : 0L;
+        }
+        Object count = entries.get(COUNT_FIELD);
+        Object sum = entries.get(SUM_FIELD);
+        return toDto(contentid,
+                count != null ? Long.parseLong(count.toString()) : 0L,
+                sum != null ? new BigDecimal(sum.toString()) : BigDecimal.ZERO,
+                stars);
+    }
+
+    private FestivalRatingDTO toDto(Long contentid, long count, BigDecimal sum, long[] stars) {
+        double average = count > 0 ? sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP).doubleValue() : 0.0;
+        return new FestivalRatingDTO(contentid, count, average, Arrays.stream(stars).boxed().toList());
+    }
+
+    // 별점 분포 칸: 평점을 반올림해서 1~5 로 맞춥니다. (백필 SQL 의 ROUND 와 같은 기준)
+    static int star(BigDecimal rating) {
+        int star = rating.setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.min(Math.max(star, 1), 5);
+    }
+
+    private String key(Long contentid) {
+        return KEY_PREFIX + contentid;
+    }
+}
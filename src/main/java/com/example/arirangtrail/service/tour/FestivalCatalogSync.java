@@ -0,0 +1,190 @@
+package com.example.arirangtrail.service.tour;
+
+import com.example.arirangtrail.data.entity.FestivalCatalogEntity;
+import com.example.arirangtrail.data.repository.FestivalCatalogRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * TourAPI 축제 목록(searchFestival2)을 festival_catalog 테이블로 주기적으로 복사합니다.
+ * 페이지마다 이미 가진 항목의 modifiedtime 과 비교해서 새로 생겼거나 바뀐 축제만 씁니다.
+ * 수정일 최신순(arrange=C)으로 받으므로, 지난번에 끝까지 돈 동기화에서 본 가장 최근 modifiedtime("festival:catalog:sync:watermark")보다
+ * 새 항목이 하나도 없는 페이지가 나오면 그 뒤는 모두 이미 반영한 것이라 멈춥니다. 기준 값이 없으면 전체를 훑습니다.
+ * 기준 값은 동기화가 끝까지 성공했을 때만 올리므로, 중간에 실패하면 다음 주기에 같은 기준으로 다시 훑습니다.
+ * 여러 서버 중 Redis 잠금("festival:catalog:sync:lock")을 잡은 한 대만 돌립니다.
+ */
+@Slf4j
+@Component
+public class FestivalCatalogSync {
+    private static final String LOCK_KEY = "festival:catalog:sync:lock";
+    private static final String WATERMARK_KEY = "festival:catalog:sync:watermark";
+
+    // 내가 잡은 잠금일 때만 지웁니다. (잠금이 만료되어 다른 서버가 잡은 뒤라면 건드리지 않음)
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+    private static final DateTimeFormatter YYYYMMDD = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final TourApiGateway tourApiGateway;
+    private final FestivalCatalogRepository festivalCatalogRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final int lookbackDays;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public FestivalCatalogSync(TourApiGateway tourApiGateway,
+                               FestivalCatalogRepository festivalCatalogRepository,
+                               RedisTemplate<String, String> redisTemplate,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${festival.catalog.page-size:500}") int pageSize,
+                               @Value("${festival.catalog.lookback-days:365}") int lookbackDays) {
+        this.tourApiGateway = tourApiGateway;
+        this.festivalCatalogRepository = festivalCatalogRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Scheduled(initialDelayString = "${festival.catalog.initial-delay-ms:60000}",
+            fixedDelayString = "${festival.catalog.sync-interval-ms:3600000}")
+    public void sync() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofMinutes(30));
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("다른 서버가 축제 카탈로그 동기화 중이므로 건너뜁니다.");
+            return;
+        }
+        try {
+            syncAll();
+        } catch (Exception e) {
+            // 기준 값을 올리지 않았으므로 다음 주기에 같은 기준으로 다시 비교해서, 중간에 실패해도 놓치는 항목은 없습니다.
+            log.error("축제 카탈로그 동기화 실패: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(LOCK_KEY), nodeId);
+        }
+    }
+
+    private void syncAll() throws Exception {
+        // 오래전에 시작해서 아직 진행 중인 축제까지 포함되도록 lookbackDays 전부터 조회합니다.
+        String eventStartDate = LocalDate.now().minusDays(lookbackDays).format(YYYYMMDD);
+        String watermark = redisTemplate.opsForValue().get(WATERMARK_KEY);
+        String newest = watermark;
+        int written = 0;
+        int seen = 0;
+        for (int pageNo = 1; ; pageNo++) {
+            String body = tourApiGateway.fetch(TourEndpoint.SEARCH_FESTIVAL, Map.of(
+                    "eventStartDate", eventStartDate,
+                    "numOfRows", String.valueOf(pageSize),
+                    "pageNo", String.valueOf(pageNo),
+                    "arrange", "C")); // 수정일순
+            JsonNode bodyNode = objectMapper.readTree(body).path("response").path("body");
+            List<JsonNode> items = items(bodyNode.path("items").path("item"));
+            if (items.isEmpty()) {
+                break;
+            }
+            seen += items.size();
+            written += savePage(items);
+
+            String pageNewest = items.stream()
+                    .map(item -> item.path("modifiedtime").asText(""))
+                    .max(Comparator.naturalOrder())
+                    .orElse("");
+            if (newest == null || pageNewest.compareTo(newest) > 0) {
+                newest = pageNewest;
+            }
+            if (watermark != null && pageNewest.compareTo(watermark) <= 0) {
+                break; // 이 페이지부터는 지난 동기화 이후 바뀐 것이 없음
+            }
+            if ((long) pageNo * pageSize >= bodyNode.path("totalCount").asLong()) {
+                break;
+            }
+        }
+        if (newest != null && !newest.isEmpty()) {
+            redisTemplate.opsForValue().set(WATERMARK_KEY, newest);
+        }
+        log.info("축제 카탈로그 동기화 완료 - 조회: {}, 반영: {}, 기준: {}", seen, written, newest);
+    }
+
+    // 한 페이지 분량을 한 번의 조회로 비교하고, 바뀐 항목만 씁니다. 반영한 건수를 반환합니다.
+    private int savePage(List<JsonNode> items) {
+        Integer written = transactionTemplate.execute(status -> {
+            List<Long> ids = items.stream().map(item -> item.path("contentid").asLong()).toList();
+            Map<Long, FestivalCatalogEntity> existing = festivalCatalogRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(FestivalCatalogEntity::getContentid, Function.identity()));
+
+            List<FestivalCatalogEntity> created = new ArrayList<>();
+            int count = 0;
+            for (JsonNode item : items) {
+                long contentid = item.path("contentid").asLong();
+                String modifiedtime = item.path("modifiedtime").asText("");
+                FestivalCatalogEntity entity = existing.get(contentid);
+                if (entity != null && modifiedtime.compareTo(entity.getModifiedtime()) <= 0) {
+                    continue; // 바뀐 것이 없음
+                }
+                if (entity == null) {
+                    entity = new FestivalCatalogEntity(contentid);
+                    created.add(entity);
+                }
+                apply(entity, item, modifiedtime);
+                count++;
+            }
+            // 기존 항목은 영속 상태라 커밋 시 변경분만 UPDATE 되고, 새 항목만 저장합니다.
+            festivalCatalogRepository.saveAll(created);
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+
+    private void apply(FestivalCatalogEntity entity, JsonNode item, String modifiedtime) {
+        entity.setTitle(item.path("title").asText("제목 없음"));
+        entity.setFirstimage(emptyToNull(item.path("firstimage").asText(null)));
+        entity.setAddr1(emptyToNull(item.path("addr1").asText(null)));
+        entity.setAreacode(emptyToNull(item.path("areacode").asText(null)));
+        entity.setEventstartdate(emptyToNull(item.path("eventstartdate").asText(null)));
+        entity.setEventenddate(emptyToNull(item.path("eventenddate").asText(null)));
+        entity.setMapx(toDouble(item.path("mapx").asText(null)));
+        entity.setMapy(toDouble(item.path("mapy").asText(null)));
+        entity.setModifiedtime(modifiedtime);
+    }
+
+    // 결과가 1건이면 배열이 아닌 객체로, 0건이면 빈 문자열로 오므로 모두 리스트로 맞춥니다.
+    private static List<JsonNode> items(JsonNode itemNode) {
+        if (itemNode.isArray()) {
+            List<JsonNode> items = new ArrayList<>();
+            itemNode.forEach(items::add);
+            return items;
+        }
+        return itemNode.isObject() ? List.of(itemNode) : Collections.emptyList();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Double toDouble(String value) {
+        try {
+            return value == null || value.isBlank() ? null : Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.arirangtrail.service.tour;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TourAPI 전용 비동기 HTTP 클라이언트.
+ * - JDK HttpClient 하나를 재사용해서 keep-alive 연결을 풀로 돌려 씁니다.
+ * - 동시에 나가는 호출 수를 tour.api.max-concurrent 로 제한하고(bulkhead), 넘치면 기다리지 않고 바로 거절합니다.
+ *   연결 풀 크기도 이 값 이상으로 커지지 않습니다.
+ * - 호출마다 tour.api.timeout-ms 로 응답 시간을 제한합니다.
+ * - HTTP 200 이어도 본문이 JSON 이 아니거나 resultCode 가 0000 이 아니면 실패로 봅니다. (키 오류, 트래픽 초과 등은 200 으로 옵니다)
+ * - 연속 실패가 쌓이면 서킷 브레이커가 열려 한동안 원격 호출 없이 바로 실패합니다. (캐시가 있으면 TourApiGateway 가 그 값을 씁니다)
+ *   브레이커에 실패로 세는 것은 원본 쪽 문제뿐입니다: 연결 오류, 타임아웃, 5xx/429, 트래픽 초과와 서비스키 오류 등 ORIGIN_ERROR_CODES.
+ *   파라미터 오류처럼 요청이 잘못된 응답은 IllegalArgumentException 으로 호출자에게 돌려주고, 원본은 응답한 것이므로 성공으로 셉니다.
+ * - 응답 처리는 전용 스레드(tour-api-client)에서 하므로 공용 ForkJoinPool 을 쓰지 않습니다.
+ * 메트릭: tour.api.requests{endpoint, outcome}, tour.api.in_flight, tour.api.circuit.state(0 닫힘, 1 열림, 2 반열림)
+ */
+@Slf4j
+@Component
+public class TourApiClient {
+    private static final String SUCCESS_CODE = "0000";
+    // 원본(키, 트래픽, 서버) 쪽 문제를 뜻하는 결과 코드. 이 밖의 코드(10 파라미터 오류, 11 필수 파라미터 없음, 12 없는 서비스 등)는 요청 탓입니다.
+    // 1 APPLICATION, 2 DB, 4 HTTP, 5 SERVICE TIMEOUT, 20 ACCESS DENIED, 21 키 일시 정지, 22 트래픽 초과,
+    // 30 미등록 키, 31 기한 만료, 32 미등록 IP, 33 서명되지 않은 호출, 99 알 수 없는 오류
+    private static final Set<Integer> ORIGIN_ERROR_CODES = Set.of(1, 2, 4, 5, 20, 21, 22, 30, 31, 32, 33, 99);
+    // 키 오류는 JSON 이 아니라 OpenAPI_ServiceResponse XML 로 옵니다.
+    private static final Pattern XML_REASON_CODE = Pattern.compile("<returnReasonCode>\\s*(\\d+)\\s*</returnReasonCode>");
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public TourApiClient(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${tour.api.max-concurrent:16}") int maxConcurrent,
+                         @Value("${tour.api.connect-timeout-ms:2000}") long connectTimeoutMs,
+                         @Value("${tour.api.timeout-ms:5000}") long timeoutMs,
+                         @Value("${tour.api.circuit.failure-threshold:5}") int failureThreshold,
+                         @Value("${tour.api.circuit.open-ms:30000}") long openMs) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConcurrent);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Math.min(maxConcurrent, 8)), runnable -> {
+            Thread thread = new Thread(runnable, "tour-api-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+
+        Gauge.builder("tour.api.in_flight", this, client -> maxConcurrent - client.permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("tour.api.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .register(meterRegistry);
+    }
+
+    // 정상 응답(resultCode 0000)의 본문을 비동기로 돌려줍니다.
+    // 요청이 잘못된 응답(4xx, 파라미터 오류 코드)은 IllegalArgumentException, 그 밖의 응답은 IllegalStateException 으로 실패합니다.
+    // bulkhead 가 가득 찼거나 서킷이 열려 있으면 RejectedExecutionException 으로 바로 실패합니다.
+    public CompletableFuture<String> get(TourEndpoint endpoint, URI uri) {
+        if (!permits.tryAcquire()) {
+            record(endpoint, "rejected", 0);
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("TourAPI 동시 호출 한도를 넘었습니다. (" + endpoint.getOperation() + ")"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            record(endpoint, "circuit_open", 0);
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("TourAPI 서킷이 열려 있습니다. (" + endpoint.getOperation() + ")"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        long startedAt = System.nanoTime();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        permits.release();
+                        long elapsed = System.nanoTime() - startedAt;
+                        if (error == null && response.statusCode() == 200) {
+                            try {
+                                verify(endpoint, response.body());
+                            } catch (IllegalArgumentException e) {
+                                circuitBreaker.onSuccess();
+                                record(endpoint, "bad_request", elapsed);
+                                result.completeExceptionally(e);
+                                return;
+                            } catch (IllegalStateException e) {
+                                circuitBreaker.onFailure();
+                                record(endpoint, "invalid", elapsed);
+                                result.completeExceptionally(e);
+                                return;
+                            }
+                            circuitBreaker.onSuccess();
+                            record(endpoint, "success", elapsed);
+                            result.complete(response.body());
+                            return;
+                        }
+                        if (error == null && isCallerError(response.statusCode())) {
+                            circuitBreaker.onSuccess();
+                            record(endpoint, "bad_request", elapsed);
+                            result.completeExceptionally(new IllegalArgumentException(
+                                    "TourAPI HTTP " + response.statusCode() + " (" + endpoint.getOperation() + ")"));
+                            return;
+                        }
+                        circuitBreaker.onFailure();
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        record(endpoint, cause instanceof HttpTimeoutException ? "timeout" : "error", elapsed);
+                        result.completeExceptionally(cause != null ? cause
+                                : new IllegalStateException("TourAPI HTTP " + response.statusCode()));
+                    });
+        } catch (RuntimeException e) {
+            permits.release();
+            circuitBreaker.onFailure();
+            record(endpoint, "error", System.nanoTime() - startedAt);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // 키 오류 등은 XML 이나 다른 결과 코드로 오므로 실패로 봅니다. 실패한 응답은 캐시되지 않습니다.
+    // 요청 탓인 결과 코드는 IllegalArgumentException, 원본 탓이거나 알아볼 수 없는 응답은 IllegalStateException 입니다.
+    private void verify(TourEndpoint endpoint, String body) {
+        if (body == null || body.isBlank()) {
+            throw new IllegalStateException("빈 응답");
+        }
+        String resultCode;
+        try {
+            resultCode = objectMapper.readTree(body).path("response").path("header").path("resultCode").asText();
+        } catch (Exception e) {
+            Matcher matcher = XML_REASON_CODE.matcher(body);
+            if (!matcher.find()) {
+                throw new IllegalStateException("JSON 이 아닌 응답: " + abbreviate(body));
+            }
+            resultCode = matcher.group(1);
+        }
+        if (SUCCESS_CODE.equals(resultCode)) {
+            return;
+        }
+        String message = endpoint.getOperation() + " 결과 코드 " + resultCode + ": " + abbreviate(body);
+        if (isOriginError(resultCode)) {
+            throw new IllegalStateException(message);
+        }
+        throw new IllegalArgumentException(message);
+    }
+
+    // 결과 코드는 "22" 또는 "0022" 처럼 옵니다. 숫자가 아니거나 비어 있으면 원본 쪽 문제로 봅니다.
+    private static boolean isOriginError(String resultCode) {
+        try {
+            return ORIGIN_ERROR_CODES.contains(Integer.parseInt(resultCode.trim()));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // 5xx 와 429(트래픽 초과)를 뺀 4xx 는 요청 탓입니다.
+    private static boolean isCallerError(int statusCode) {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 429;
+    }
+
+    private static String abbreviate(String body) {
+        return body.length() > 200 ? body.substring(0, 200) + "..." : body;
+    }
+
+    private void record(TourEndpoint endpoint, String outcome, long elapsedNanos) {
+        Timer.builder("tour.api.requests")
+                .tag("endpoint", endpoint.getOperation())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.arirangtrail.service.tour;
+
+import com.example.arirangtrail.component.tour.TourApiCache;
+import com.example.arirangtrail.component.tour.TourApiCache.CachedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * TourAPI(KorService2) 호출의 단일 창구.
+ * 응답은 TourApiCache(메모리 + Redis)에 보관하고, 오퍼레이션별 신선 기간(TourEndpoint.freshFor)이 지난 응답은
+ * stale 기간(tour.cache.stale-seconds) 동안 그대로 돌려주면서 백그라운드에서 한 번만 새로 받아옵니다. (stale-while-revalidate)
+ * 같은 요청이 동시에 여러 번 캐시를 놓쳐도 원본 호출은 하나만 나가고 나머지는 그 결과를 기다립니다. (single-flight)
+ * 백그라운드 갱신이 실패한 key 는 tour.cache.refresh-backoff-ms 부터 두 배씩(최대 refresh-backoff-max-ms) 기다린 뒤에 다시 시도하므로,
+ * 원본이 계속 실패해도 stale 요청마다 호출이 나가지 않습니다.
+ * 실제 호출은 TourApiClient(연결 풀, 동시 호출 제한, 타임아웃, 서킷 브레이커)가 하고, 호출이 막히거나 실패해도 stale 응답이 있으면 그것을 씁니다.
+ * 원본 주소는 tour.api.base-url 로 바꿀 수 있어서 로컬 stub 서버를 띄워 확인할 수 있습니다.
+ */
+@Slf4j
+@Service
+public class TourApiGateway {
+    // 게이트웨이가 직접 붙이는 파라미터. 클라이언트가 보내도 무시합니다.
+    private static final Set<String> RESERVED_PARAMS = Set.of("serviceKey", "MobileOS", "MobileApp", "_type");
+
+    private final TourApiClient tourApiClient;
+    private final TourApiCache cache;
+    private final MeterRegistry meterRegistry;
+    private final String baseUrl;
+    private final String serviceKey;
+    private final Duration staleFor;
+    private final long refreshBackoffMs;
+    private final long refreshBackoffMaxMs;
+
+    // 캐시 key -> 진행 중인 원본 호출
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    // 캐시 key -> 갱신 실패 횟수와 다음 갱신을 시도해도 되는 시각. 성공하면 지웁니다.
+    private final Map<String, RefreshBackoff> refreshBackoff = new ConcurrentHashMap<>();
+
+    public TourApiGateway(TourApiClient tourApiClient,
+                          TourApiCache cache,
+                          MeterRegistry meterRegistry,
+                          @Value("${tour.api.base-url:https://apis.data.go.kr/B551011/KorService2}") String baseUrl,
+                          @Value("${tour.api.service-key}") String serviceKey,
+                          @Value("${tour.cache.stale-seconds:86400}") long staleSeconds,
+                          @Value("${tour.cache.refresh-backoff-ms:5000}") long refreshBackoffMs,
+                          @Value("${tour.cache.refresh-backoff-max-ms:300000}") long refreshBackoffMaxMs) {
+        this.tourApiClient = tourApiClient;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = baseUrl;
+        this.serviceKey = serviceKey;
+        this.staleFor = Duration.ofSeconds(staleSeconds);
+        this.refreshBackoffMs = refreshBackoffMs;
+        this.refreshBackoffMaxMs = refreshBackoffMaxMs;
+    }
+
+    // TourAPI 응답(JSON 원문)을 돌려줍니다. 캐시에도 없고 원본 호출도 실패하면 IllegalStateException 을 던집니다.
+    public String get(TourEndpoint endpoint, Map<String, String> params) {
+        Map<String, String> query = new TreeMap<>(params);
+        query.keySet().removeAll(RESERVED_PARAMS);
+        String key = cacheKey(endpoint, query);
+
+        Optional<CachedResponse> cached = cache.get(key);
+        if (cached.isPresent()) {
+            CachedResponse response = cached.get();
+            if (response.age(System.currentTimeMillis()).compareTo(endpoint.getFreshFor()) < 0) {
+                count(endpoint, "hit");
+                return response.body();
+            }
+            // stale: 일단 가진 응답을 주고, 갱신은 뒤에서 (이미 갱신 중이거나 최근 갱신이 실패해 기다리는 중이면 그대로 둡니다)
+            count(endpoint, "stale");
+            RefreshBackoff backoff = refreshBackoff.get(key);
+            if (backoff == null || backoff.retryAt <= System.currentTimeMillis()) {
+                load(endpoint, key, query);
+            }
+            return response.body();
+        }
+
+        count(endpoint, "miss");
+        return await(endpoint, load(endpoint, key, query));
+    }
+
+    // 같은 key 의 원본 호출이 이미 진행 중이면 그 결과를 같이 기다립니다.
+    private CompletableFuture<String> load(TourEndpoint endpoint, String key, Map<String, String> query) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        fetchAsync(endpoint, query).whenComplete((body, error) -> {
+            inFlight.remove(key, created);
+            if (error != null) {
+                log.warn("TourAPI 호출 실패 - Key: {}, Error: {}", key, unwrap(error).getMessage());
+                backOff(key);
+                created.completeExceptionally(unwrap(error));
+                return;
+            }
+            refreshBackoff.remove(key);
+            // 신선 기간 + stale 기간 동안 보관합니다.
+            cache.put(key, new CachedResponse(body, System.currentTimeMillis()), endpoint.getFreshFor().plus(staleFor));
+            created.complete(body);
+        });
+        return created;
+    }
+
+    // 실패 횟수만큼 기다릴 시간을 두 배로 늘립니다.
+    private void backOff(String key) {
+        refreshBackoff.compute(key, (k, previous) -> {
+            int failures = previous == null ? 1 : previous.failures + 1;
+            long delay = Math.min(refreshBackoffMaxMs, refreshBackoffMs << Math.min(failures - 1, 20));
+            return new RefreshBackoff(failures, System.currentTimeMillis() + delay);
+        });
+    }
+
+    // 캐시를 거치지 않고 원본을 바로 호출합니다. (카탈로그 동기화처럼 매번 최신 값이 필요하고 다시 쓰지 않을 응답용)
+    public String fetch(TourEndpoint endpoint, Map<String, String> params) {
+        return await(endpoint, fetchAsync(endpoint, params));
+    }
+
+    private CompletableFuture<String> fetchAsync(TourEndpoint endpoint, Map<String, String> params) {
+        Map<String, String> query = new TreeMap<>(params);
+        query.keySet().removeAll(RESERVED_PARAMS);
+
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl + "/" + endpoint.getOperation())
+                .queryParam("serviceKey", serviceKey) // 이미 인코딩된 키
+                .queryParam("MobileOS", "ETC")
+                .queryParam("MobileApp", "AppTest")
+                .queryParam("_type", "json");
+        query.forEach((name, value) -> builder.queryParam(
+                UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8),
+                UriUtils.encodeQueryParam(value, StandardCharsets.UTF_8)));
+        // build(true): 서비스키의 %가 %25로 다시 인코딩되지 않게 합니다.
+        URI uri = builder.build(true).toUri();
+
+        // 응답 검사(resultCode 0000, JSON)는 서킷 브레이커 판정과 함께 TourApiClient 가 합니다.
+        return tourApiClient.get(endpoint, uri);
+    }
+
+    // 호출 결과를 기다립니다. 요청이 잘못된 경우(IllegalArgumentException)는 그대로 던지고,
+    // 그 밖의 실패(타임아웃, 서킷 열림, 동시 호출 초과 포함)는 IllegalStateException 으로 바꿉니다.
+    private String await(TourEndpoint endpoint, CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof IllegalArgumentException badRequest) {
+                throw badRequest;
+            }
+            throw new IllegalStateException("TourAPI 호출 실패 (" + endpoint.getOperation() + "): " + cause.getMessage(), cause);
+        }
+    }
+
+    private String cacheKey(TourEndpoint endpoint, Map<String, String> query) {
+        return endpoint.getOperation() + "?" + query.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+    }
+
+    private void count(TourEndpoint endpoint, String result) {
+        meterRegistry.counter("tour.cache.requests", "endpoint", endpoint.getOperation(), "result", result).increment();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private record RefreshBackoff(int failures, long retryAt) {
+    }
+}
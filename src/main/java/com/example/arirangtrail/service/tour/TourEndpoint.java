@@ -0,0 +1,76 @@
+package com.example.arirangtrail.service.tour;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 게이트웨이로 중계하는 TourAPI(KorService2) 오퍼레이션과 각각의 캐시 신선도, 받을 수 있는 파라미터.
+ * 목록/검색은 새 축제가 올라오면 금방 바뀌므로 짧게, 상세 정보는 거의 바뀌지 않으므로 길게 둡니다.
+ * 중계 API 는 로그인 없이 열려 있으므로, 오퍼레이션마다 정해진 파라미터만 받고 페이지 크기/번호는 범위 안으로 맞춥니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TourEndpoint {
+    SEARCH_FESTIVAL("searchFestival2", Duration.ofMinutes(10), Set.of(
+            "numOfRows", "pageNo", "arrange", "eventStartDate", "eventEndDate", "modifiedtime",
+            "areaCode", "sigunguCode", "lDongRegnCd", "lDongSignguCd", "lclsSystm1", "lclsSystm2", "lclsSystm3")),
+    LOCATION_BASED_LIST("locationBasedList2", Duration.ofMinutes(10), Set.of(
+            "numOfRows", "pageNo", "arrange", "mapX", "mapY", "radius", "contentTypeId", "modifiedtime",
+            "areaCode", "sigunguCode", "lDongRegnCd", "lDongSignguCd", "lclsSystm1", "lclsSystm2", "lclsSystm3")),
+    DETAIL_COMMON("detailCommon2", Duration.ofHours(6), Set.of("numOfRows", "pageNo", "contentId")),
+    DETAIL_INTRO("detailIntro2", Duration.ofHours(6), Set.of("numOfRows", "pageNo", "contentId", "contentTypeId")),
+    DETAIL_IMAGE("detailImage2", Duration.ofHours(6), Set.of("numOfRows", "pageNo", "contentId", "imageYN"));
+
+    // 축제 목록 화면(달력, 커뮤니티, 리뷰 작성)이 한 번에 150건을 받으므로 그보다 넉넉하게 둡니다.
+    public static final int MAX_ROWS = 200;
+    public static final int MAX_PAGE = 1000;
+    // 위 파라미터 값은 모두 코드/숫자/좌표/날짜이므로 그 밖의 문자나 긴 값은 받지 않습니다. (캐시 key 가 끝없이 늘어나지 않게)
+    private static final Pattern VALUE_PATTERN = Pattern.compile("[0-9A-Za-z.\\-]{1,40}");
+
+    private final String operation;
+    // 이 시간 안의 응답은 그대로 쓰고, 지나면 stale 로 보고 응답은 주되 백그라운드에서 갱신합니다.
+    private final Duration freshFor;
+    private final Set<String> allowedParams;
+
+    public static Optional<TourEndpoint> fromOperation(String operation) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.operation.equals(operation))
+                .findFirst();
+    }
+
+    // 클라이언트가 보낸 파라미터를 검사해 정렬된 사본으로 돌려줍니다. 모르는 파라미터나 형식에 맞지 않는 값은 IllegalArgumentException.
+    // numOfRows 는 1~MAX_ROWS, pageNo 는 1~MAX_PAGE 로 맞춥니다.
+    public Map<String, String> normalize(Map<String, String> params) {
+        Map<String, String> query = new TreeMap<>();
+        params.forEach((name, value) -> {
+            if (!allowedParams.contains(name)) {
+                throw new IllegalArgumentException(operation + " 에서 지원하지 않는 파라미터입니다: " + name);
+            }
+            if (value == null || !VALUE_PATTERN.matcher(value).matches()) {
+                throw new IllegalArgumentException("파라미터 값이 올바르지 않습니다: " + name);
+            }
+            query.put(name, value);
+        });
+        clamp(query, "numOfRows", MAX_ROWS);
+        clamp(query, "pageNo", MAX_PAGE);
+        return query;
+    }
+
+    private static void clamp(Map<String, String> query, String name, int max) {
+        String value = query.get(name);
+        if (value == null) {
+            return;
+        }
+        int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("파라미터 값이 숫자가 아닙니다: " + name);
+        }
+        query.put(name, String.valueOf(Math.min(Math.max(number, 1), max)));
+    }
+}
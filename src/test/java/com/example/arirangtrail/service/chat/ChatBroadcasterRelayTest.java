@@ -0,0 +1,314 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.ArirangtrailApplication;
+import com.example.arirangtrail.data.entity.UserEntity;
+import com.example.arirangtrail.data.repository.UserRepository;
+import com.example.arirangtrail.jwt.JwtUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 애플리케이션 컨텍스트 두 개(서버 두 대)를 임의 포트로 띄우고 같은 Redis 에 붙여서,
+ * 실제 STOMP 클라이언트(SockJS, /ws-stomp)로 구독한 세션이 다른 서버에서 보낸 프레임을 정확히 한 번씩 받는지 확인합니다.
+ * WebSocketConfig, StompHandler(토큰 검증), SimpleBroker, ChatBroadcaster 의 relay 구독까지 운영과 같은 빈을 씁니다.
+ * MySQL 대신 H2(MySQL 모드), Mongo 대신 mongo-java-server, Redis 는 embedded-redis 를 씁니다.
+ */
+class ChatBroadcasterRelayTest {
+    private static final String RELAY_CHANNEL = "chat:relay:test";
+    private static final String USERNAME = "alice";
+    private static final String OTHER_USERNAME = "bob";
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+    private static MongoServer mongoServer;
+    private static String mongoUri;
+
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private WebSocketStompClient stompClient;
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private String token;
+    private String otherToken;
+
+    @BeforeAll
+    static void startInfrastructure() throws IOException {
+        redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        mongoServer = new MongoServer(new MemoryBackend());
+        mongoUri = mongoServer.bindAndGetConnectionString() + "/arirangtrailchat";
+        // S3Config 는 기본 자격 증명 체인을 쓰므로 시스템 프로퍼티로 넣어 둡니다. (S3 는 호출하지 않습니다)
+        System.setProperty("aws.accessKeyId", "test");
+        System.setProperty("aws.secretKey", "test");
+    }
+
+    @AfterAll
+    static void stopInfrastructure() throws IOException {
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretKey");
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 기동 시 MySQL 전용 SQL 을 돌리는 backfill 은 이미 끝난 것으로 둡니다.
+        try (RedisClient client = RedisClient.create("redis://localhost:" + redisPort);
+             StatefulRedisConnection<String, String> connection = client.connect()) {
+            connection.sync().flushall();
+            connection.sync().set("migration:festival_meta:like_count", "done");
+            connection.sync().set("migration:festival_review_stats", "done");
+        }
+
+        nodeA = startNode();
+        nodeB = startNode();
+        awaitTrue(() -> relaySubscribers() == 2, "두 서버가 relay 채널을 구독하지 못했습니다.");
+
+        // 두 서버가 같은 DB 를 보므로 사용자는 한 번만 만듭니다. (StompHandler 가 토큰의 사용자가 있는지 확인합니다)
+        UserRepository userRepository = nodeA.getBean(UserRepository.class);
+        for (String username : List.of(USERNAME, OTHER_USERNAME)) {
+            if (userRepository.findByUsername(username).isEmpty()) {
+                userRepository.save(UserEntity.builder()
+                        .username(username)
+                        .password("password")
+                        .role("ROLE_USER")
+                        .email(username + "@example.com")
+                        .firstname("first")
+                        .lastname("last")
+                        .nickname("nick-" + username)
+                        .build());
+            }
+        }
+        JwtUtil jwtUtil = nodeA.getBean(JwtUtil.class);
+        token = jwtUtil.createToken("access", USERNAME, "ROLE_USER", 600_000L);
+        otherToken = jwtUtil.createToken("access", OTHER_USERNAME, "ROLE_USER", 600_000L);
+
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (StompSession session : sessions) {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        }
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+        for (ConfigurableApplicationContext node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    void personalFrameReachesTheUserOnBothNodesExactlyOnce() throws Exception {
+        Frames onA = subscribe(nodeA, token, "/sub/user/" + USERNAME);
+        Frames onB = subscribe(nodeB, token, "/sub/user/" + USERNAME);
+        Frames otherUser = subscribe(nodeB, otherToken, "/sub/user/" + OTHER_USERNAME);
+
+        // 운영 경로 그대로: 안 읽은 수가 바뀐 유저를 표시하면 다음 flush 에 /sub/user/{username} 으로 나갑니다.
+        nodeA.getBean(ChatEventAggregator.class).markUsersDirty(List.of(USERNAME));
+
+        awaitTrue(() -> onB.received.size() == 1, "다른 서버에 연결된 세션이 개인 알림을 받지 못했습니다.");
+        awaitTrue(() -> onA.received.size() == 1, "같은 서버에 연결된 세션이 개인 알림을 받지 못했습니다.");
+        // 자기 서버로 되돌아온 relay 나 늦게 도착하는 중복이 없는지 조금 더 기다려 봅니다.
+        Thread.sleep(500);
+
+        assertThat(onA.received).hasSize(1);
+        assertThat(onB.received).hasSize(1);
+        assertThat(otherUser.received).isEmpty();
+        assertThat(onB.received.get(0).path("type").asText()).isEqualTo("TOTAL_UNREAD_COUNT_UPDATE");
+        assertThat(onB.received.get(0)).isEqualTo(onA.received.get(0));
+    }
+
+    @Test
+    void lobbyEventReachesLobbyOnBothNodesExactlyOnce() throws Exception {
+        Frames onA = subscribe(nodeA, token, "/sub/chat/lobby");
+        Frames onB = subscribe(nodeB, otherToken, "/sub/chat/lobby");
+
+        nodeB.getBean(LobbyEventPublisher.class).roomChanged(7L, 3);
+
+        awaitTrue(() -> onA.received.size() == 1, "다른 서버에 연결된 세션이 로비 이벤트를 받지 못했습니다.");
+        awaitTrue(() -> onB.received.size() == 1, "같은 서버에 연결된 세션이 로비 이벤트를 받지 못했습니다.");
+        Thread.sleep(500);
+
+        assertThat(onA.received).hasSize(1);
+        assertThat(onB.received).hasSize(1);
+        JsonNode event = onA.received.get(0);
+        assertThat(event.path("type").asText()).isEqualTo("ROOM_CHANGED");
+        assertThat(event.path("roomId").asLong()).isEqualTo(7L);
+        assertThat(event.path("participantCount").asLong()).isEqualTo(3L);
+        // 로비 버전은 Redis 하나를 같이 쓰므로 두 서버에서 같은 값입니다.
+        assertThat(event.path("version").asLong()).isPositive();
+        assertThat(onB.received.get(0)).isEqualTo(event);
+    }
+
+    @Test
+    void relaySubscriptionFollowsTheNodeLifecycle() throws Exception {
+        Frames onA = subscribe(nodeA, token, "/sub/chat/lobby");
+
+        // 서버 한 대가 내려가면 relay 구독도 빠지고, 남은 서버는 자기 구독자에게 계속 보냅니다.
+        nodeB.close();
+        awaitTrue(() -> relaySubscribers() == 1, "내려간 서버의 relay 구독이 남아 있습니다.");
+        nodeA.getBean(LobbyEventPublisher.class).roomDeleted(1L);
+        awaitTrue(() -> onA.received.size() == 1, "남은 서버의 구독자가 로비 이벤트를 받지 못했습니다.");
+
+        // 새로 뜬 서버는 기동하면서 다시 구독하고, 다른 서버의 프레임을 자기 세션에 전달합니다.
+        ConfigurableApplicationContext nodeC = startNode();
+        awaitTrue(() -> relaySubscribers() == 2, "새 서버가 relay 채널을 구독하지 못했습니다.");
+        Frames onC = subscribe(nodeC, otherToken, "/sub/chat/lobby");
+        nodeA.getBean(LobbyEventPublisher.class).roomDeleted(2L);
+
+        awaitTrue(() -> onC.received.size() == 1, "새 서버의 구독자가 로비 이벤트를 받지 못했습니다.");
+        awaitTrue(() -> onA.received.size() == 2, "남은 서버의 구독자가 두 번째 로비 이벤트를 받지 못했습니다.");
+        Thread.sleep(500);
+
+        assertThat(onC.received).hasSize(1);
+        assertThat(onC.received.get(0).path("type").asText()).isEqualTo("ROOM_DELETED");
+        assertThat(onC.received.get(0).path("roomId").asLong()).isEqualTo(2L);
+        assertThat(onA.received).hasSize(2);
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ArirangtrailApplication.class).run(
+                "--server.port=0",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + redisPort,
+                "--spring.data.mongodb.uri=" + mongoUri,
+                "--spring.datasource.url=jdbc:h2:mem:relay;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--chat.relay.channel=" + RELAY_CHANNEL,
+                "--festival.catalog.initial-delay-ms=3600000",
+                "--logging.level.com.example.arirangtrail=INFO",
+                "--logging.level.org.springframework.security=INFO",
+                "--logging.level.org.springframework.web.client=INFO",
+                "--logging.level.org.springframework.core.env=INFO",
+                "--logging.level.com.amazonaws=INFO",
+                "--NAVER_CLIENT_ID=test", "--NAVER_CLIENT_SECRET=test",
+                "--GOOGLE_CLIENT_ID=test", "--GOOGLE_CLIENT_SECRET=test",
+                "--KAKAO_CLIENT_ID=test", "--KAKAO_CLIENT_SECRET=test",
+                "--AWS_ACCESS_KEY_ID=test", "--AWS_SECRET_ACCESS_KEY=test",
+                "--TOUR_API_SERVICE_KEY=test");
+        nodes.add(context);
+        return context;
+    }
+
+    // 실제 STOMP 세션을 열어 구독하고, 서버의 SimpleBroker 에 구독이 등록될 때까지 기다립니다.
+    private Frames subscribe(ConfigurableApplicationContext node, String accessToken, String destination) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + accessToken);
+        StompSession session = stompClient.connectAsync("http://localhost:" + port + "/ws-stomp",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+
+        SimpleBrokerMessageHandler broker = node.getBean(SimpleBrokerMessageHandler.class);
+        int before = subscriptions(broker, destination);
+        Frames frames = new Frames();
+        session.subscribe(destination, frames);
+        awaitTrue(() -> subscriptions(broker, destination) == before + 1, "구독이 등록되지 않았습니다: " + destination);
+        return frames;
+    }
+
+    private static int subscriptions(SimpleBrokerMessageHandler broker, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return broker.getSubscriptionRegistry()
+                .findSubscriptions(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()))
+                .size();
+    }
+
+    private static long relaySubscribers() {
+        try (RedisClient client = RedisClient.create("redis://localhost:" + redisPort);
+             StatefulRedisConnection<String, String> connection = client.connect()) {
+            return connection.sync().pubsubNumsub(RELAY_CHANNEL).getOrDefault(RELAY_CHANNEL, 0L);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String failure) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError(failure);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // 구독 하나가 받은 프레임 본문(JSON)
+    private static class Frames implements StompFrameHandler {
+        final List<JsonNode> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            received.add((JsonNode) payload);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.arirangtrail.service.chat;
+
+import com.example.arirangtrail.config.MongoIndexConfig;
+import com.example.arirangtrail.data.document.ChatRoom;
+import com.example.arirangtrail.data.document.UserChatStatus;
+import com.example.arirangtrail.data.repository.chat.ChatMessageRepository;
+import com.example.arirangtrail.data.repository.chat.ChatRoomRepository;
+import com.example.arirangtrail.data.repository.chat.UserChatStatusRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 정원 제한(joinRoom)의 동시성 테스트. 인메모리 Mongo 서버에 실제 유니크 인덱스와 조건부 findAndModify 를 걸고,
+ * 수백 명이 한꺼번에 입장하거나 입장/퇴장/강퇴/공지 수정이 섞여 들어와도 참여자 수와 참여 정보가 정원을 넘지 않고,
+ * 메시지 순번(lastMessageSeq)이 되돌아가지 않는지 확인합니다.
+ */
+class ChatServiceJoinRoomConcurrencyTest {
+    private static final int THREADS = 400;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        mongoServer = new MongoServer(new MemoryBackend());
+        mongoClient = MongoClients.create(mongoServer.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(mongoClient, "chat-test");
+        new MongoIndexConfig(mongoTemplate).ensureIndexes();
+
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        chatService = new ChatService(
+                repositoryFactory.getRepository(ChatRoomRepository.class),
+                mock(ChatMessageRepository.class),
+                mock(SequenceService.class),
+                repositoryFactory.getRepository(UserChatStatusRepository.class),
+                mongoTemplate,
+                mock(ChatBroadcaster.class),
+                mock(UnreadCounterService.class),
+                mock(ChatEventAggregator.class),
+                mock(LobbySnapshotService.class),
+                mock(LobbyEventPublisher.class),
+                mock(ChatMessageWriter.class),
+                mock(RecentMessageCache.class),
+                mock(ReadReceiptAggregator.class),
+                new ParticipantCountBackfill(mongoTemplate, mock(LobbySnapshotService.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+        mongoServer.shutdownNow();
+    }
+
+    @Test
+    void concurrentJoinsNeverExceedCapacity() throws Exception {
+        createRoom(1L, 10);
+
+        JoinResults results = joinConcurrently(1L, i -> "user" + i);
+
+        assertThat(results.joined.get()).isEqualTo(9);
+        assertThat(results.full.get()).isEqualTo(THREADS - 9);
+        assertThat(results.unexpected).isEmpty();
+        assertThat(participantCount(1L)).isEqualTo(10);
+        assertThat(statusCount(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void concurrentDuplicateJoinsTakeOneSeat() throws Exception {
+        createRoom(2L, 10);
+
+        JoinResults results = joinConcurrently(2L, i -> "same-user");
+
+        assertThat(results.unexpected).isEmpty();
+        assertThat(results.full.get()).isZero();
+        assertThat(participantCount(2L)).isEqualTo(2);
+        assertThat(statusCount(2L)).isEqualTo(2);
+    }
+
+    @Test
+    void roomWithoutParticipantCountIsCountedBeforeReservingSeat() {
+        // participantCount 필드가 생기기 전에 만들어진 방 (참여자 3명, 정원 4명)
+        mongoTemplate.getCollection("chatRooms").insertOne(new Document("_id", 3L)
+                .append("title", "legacy")
+                .append("creator", "owner")
+                .append("maxParticipants", 4)
+                .append("lastMessageSeq", 0L));
+        for (String username : List.of("owner", "a", "b")) {
+            mongoTemplate.insert(new UserChatStatus(3L, username, username));
+        }
+
+        chatService.joinRoom(3L, "c", "c");
+
+        assertThat(participantCount(3L)).isEqualTo(4);
+        assertThatThrownBy(() -> chatService.joinRoom(3L, "d", "d")).isInstanceOf(IllegalStateException.class);
+        assertThat(statusCount(3L)).isEqualTo(4);
+    }
+
+    @Test
+    void joinsLeavesKicksAndNoticeUpdatesKeepCountAndSeqConsistent() throws Exception {
+        int maxParticipants = 8;
+        createRoom(4L, maxParticipants);
+        // 미리 들어와 있는 멤버들. 절반은 스스로 나가고, 절반은 방장에게 강퇴됩니다.
+        List<String> leavers = new ArrayList<>();
+        List<String> kicked = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            leavers.add("leaver" + i);
+            kicked.add("kicked" + i);
+        }
+        for (String member : concat(leavers, kicked)) {
+            chatService.joinRoom(4L, member, member);
+        }
+        assertThat(participantCount(4L)).isEqualTo(7);
+
+        int joiners = 300;
+        int messages = 200;
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < joiners; i++) {
+            String name = "joiner" + i;
+            tasks.add(() -> {
+                try {
+                    chatService.joinRoom(4L, name, name);
+                } catch (IllegalStateException e) {
+                    // 정원 초과는 정상적인 거절
+                }
+                return null;
+            });
+        }
+        leavers.forEach(name -> tasks.add(() -> {
+            chatService.leaveRoom(4L, name);
+            return null;
+        }));
+        kicked.forEach(name -> tasks.add(() -> {
+            chatService.kickAndBanUser(4L, "owner", name);
+            return null;
+        }));
+        for (int i = 0; i < 20; i++) {
+            String notice = "notice-" + i;
+            tasks.add(() -> {
+                chatService.updateNotice(4L, "owner", notice);
+                return null;
+            });
+        }
+        // 메시지 발급과 같은 방식으로 lastMessageSeq 를 올립니다. (방 문서를 통째로 저장하는 경로가 있으면 값이 되돌아갑니다)
+        for (int i = 0; i < messages; i++) {
+            tasks.add(() -> {
+                mongoTemplate.updateFirst(new Query(Criteria.where("id").is(4L)),
+                        new Update().inc("lastMessageSeq", 1), ChatRoom.class);
+                return null;
+            });
+        }
+        Collections.shuffle(tasks);
+        runConcurrently(tasks);
+
+        ChatRoom room = mongoTemplate.findById(4L, ChatRoom.class);
+        assertThat(room.getParticipantCount()).isEqualTo(statusCount(4L));
+        assertThat(room.getParticipantCount()).isLessThanOrEqualTo(maxParticipants);
+        assertThat(room.getLastMessageSeq()).isEqualTo(messages);
+        assertThat(room.getBannedUsernames()).containsExactlyInAnyOrderElementsOf(kicked);
+        for (String name : concat(leavers, kicked)) {
+            assertThat(isMember(4L, name)).as(name).isFalse();
+        }
+    }
+
+    private JoinResults joinConcurrently(Long roomId, IntFunction<String> username) throws Exception {
+        JoinResults results = new JoinResults();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String name = username.apply(i);
+            tasks.add(() -> {
+                try {
+                    chatService.joinRoom(roomId, name, name);
+                    results.joined.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    results.full.incrementAndGet();
+                } catch (RuntimeException e) {
+                    results.unexpected.add(e);
+                }
+                return null;
+            });
+        }
+        runConcurrently(tasks);
+        return results;
+    }
+
+    // 모든 작업을 각자의 스레드에 올려 두고 한꺼번에 출발시킵니다. 작업이 던진 예외는 그대로 테스트 실패가 됩니다.
+    private static void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private void createRoom(Long roomId, int maxParticipants) {
+        ChatRoom room = new ChatRoom();
+        room.setId(roomId);
+        room.setTitle("room-" + roomId);
+        room.setCreator("owner");
+        room.setMaxParticipants(maxParticipants);
+        room.setParticipantCount(1L);
+        mongoTemplate.insert(room);
+        mongoTemplate.insert(new UserChatStatus(roomId, "owner", "owner"));
+    }
+
+    private long participantCount(Long roomId) {
+        return mongoTemplate.findById(roomId, ChatRoom.class).getParticipantCount();
+    }
+
+    private boolean isMember(Long roomId, String username) {
+        return mongoTemplate.exists(new Query(Criteria.where("roomId").is(roomId).and("username").is(username)), UserChatStatus.class);
+    }
+
+    private long statusCount(Long roomId) {
+        return mongoTemplate.count(new Query(Criteria.where("roomId").is(roomId)), UserChatStatus.class);
+    }
+
+    private static class JoinResults {
+        final AtomicInteger joined = new AtomicInteger();
+        final AtomicInteger full = new AtomicInteger();
+        final List<Exception> unexpected = new CopyOnWriteArrayList<>();
+    }
+}
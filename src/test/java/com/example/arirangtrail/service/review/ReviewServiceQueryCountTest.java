@@ -0,0 +1,133 @@
+package com.example.arirangtrail.service.review;
+
+import com.example.arirangtrail.component.review.FileStore;
+import com.example.arirangtrail.component.user.UserProfileCache;
+import com.example.arirangtrail.data.dto.review.ReviewFeedResponseDto;
+import com.example.arirangtrail.data.dto.review.ReviewResponseDto;
+import com.example.arirangtrail.data.entity.ReviewEntity;
+import com.example.arirangtrail.data.entity.ReviewphotoEntity;
+import com.example.arirangtrail.data.entity.UserEntity;
+import com.example.arirangtrail.data.repository.ReviewRepository;
+import com.example.arirangtrail.data.repository.ReviewphotoRepository;
+import com.example.arirangtrail.data.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 리뷰 DTO 를 만들 때 리뷰 수와 상관없이 쿼리 수가 일정한지 Hibernate 통계로 확인합니다. (H2)
+ * 리뷰 목록 1번 + 사진 IN 쿼리 1번 + 작성자 IN 쿼리 1번이어야 하고, 리뷰마다 사진/작성자를 따로 읽으면 실패합니다.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class ReviewServiceQueryCountTest {
+    private static final int PHOTOS_PER_REVIEW = 3;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ReviewphotoRepository reviewphotoRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ReviewService reviewService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // 프로필 캐시는 테스트마다 새로 만들어서 작성자 조회가 항상 DB 까지 가게 합니다.
+        UserProfileCache userProfileCache = new UserProfileCache(userRepository, new SimpleMeterRegistry(), 1000, 300);
+        reviewService = new ReviewService(reviewRepository, reviewphotoRepository, mock(FileStore.class),
+                userProfileCache, mock(ReviewStatsService.class), new TransactionTemplate(transactionManager));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void reviewsOfUserAreBuiltWithThreeStatements(int reviews) {
+        saveUser("writer");
+        for (int i = 0; i < reviews; i++) {
+            saveReview("writer", i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<ReviewResponseDto> result = reviewService.getReviewsByUsername("writer");
+
+        assertThat(result).hasSize(reviews);
+        assertThat(result).allSatisfy(dto -> assertThat(dto.getPhotos()).hasSize(PHOTOS_PER_REVIEW));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 20})
+    void feedPageIsBuiltWithThreeStatements(int reviews) {
+        // 리뷰마다 작성자가 다르게 해서 작성자 조회가 한 번으로 묶이는지도 봅니다.
+        for (int i = 0; i < reviews; i++) {
+            saveUser("writer" + i);
+            saveReview("writer" + i, i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        ReviewFeedResponseDto feed = reviewService.getReviewFeed(null, reviews);
+
+        assertThat(feed.getReviews()).hasSize(reviews);
+        assertThat(feed.getReviews()).allSatisfy(summary -> assertThat(summary.getThumbnailUrl()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private void saveUser(String username) {
+        userRepository.save(UserEntity.builder()
+                .username(username)
+                .password("password")
+                .role("ROLE_USER")
+                .email(username + "@example.com")
+                .firstname("first")
+                .lastname("last")
+                .nickname("nick-" + username)
+                .build());
+    }
+
+    private void saveReview(String username, int index) {
+        ReviewEntity review = reviewRepository.save(ReviewEntity.builder()
+                .username(username)
+                .contentid(100L + index)
+                .contenttitle("festival " + index)
+                .title("title " + index)
+                .content("content " + index)
+                .rating(new BigDecimal("4.5"))
+                .build());
+        for (int i = 0; i < PHOTOS_PER_REVIEW; i++) {
+            ReviewphotoEntity photo = new ReviewphotoEntity();
+            photo.setReview(review);
+            photo.setImageurl("https://example.com/" + review.getId() + "/" + i + ".jpg");
+            reviewphotoRepository.save(photo);
+        }
+    }
+}
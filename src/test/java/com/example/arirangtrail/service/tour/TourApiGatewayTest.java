@@ -0,0 +1,249 @@
+package com.example.arirangtrail.service.tour;
+
+import com.example.arirangtrail.component.tour.TourApiCache;
+import com.example.arirangtrail.component.tour.TourApiCache.CachedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 stub TourAPI 서버(JDK HttpServer)에 실제 TourApiClient 로 붙여서 게이트웨이의 동작을 확인합니다.
+ * - numOfRows 가 범위 안으로 맞춰져 원본에 전달되는지
+ * - 같은 요청이 동시에 캐시를 놓쳐도 원본 호출이 한 번만 나가는지 (single-flight)
+ * - stale 응답을 바로 돌려주고 갱신은 뒤에서 한 번만 하는지 (stale-while-revalidate)
+ * - 요청 탓인 결과 코드는 서킷 브레이커를 열지 않고, 트래픽 초과/키 오류는 여는지
+ * 캐시는 메모리 단계만 쓰고, Redis 는 항상 비어 있는 것으로 둡니다.
+ */
+class TourApiGatewayTest {
+    private static final String OPERATION = TourEndpoint.SEARCH_FESTIVAL.getOperation();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private TourApiClient client;
+    private TourApiCache cache;
+    private TourApiGateway gateway;
+
+    private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responses = new AtomicInteger();
+    // 열릴 때까지 stub 서버가 응답하지 않습니다.
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile int status = 200;
+    // null 이 아니면 정상 응답 대신 이 본문을 돌려줍니다.
+    private volatile String overrideBody;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/" + OPERATION, this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries(anyString())).thenReturn(Map.of());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new TourApiClient(new ObjectMapper(), meterRegistry, 64, 2000, 5000, 5, 30000);
+        cache = new TourApiCache(redisTemplate, meterRegistry, 100);
+        gateway = new TourApiGateway(client, cache, meterRegistry,
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test%2Bkey", 86400, 60000, 300000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        client.shutdown();
+    }
+
+    @Test
+    void numOfRowsIsClampedBeforeReachingTheOrigin() {
+        gateway.get(TourEndpoint.SEARCH_FESTIVAL,
+                TourEndpoint.SEARCH_FESTIVAL.normalize(Map.of("numOfRows", "5000", "pageNo", "0")));
+        gateway.get(TourEndpoint.SEARCH_FESTIVAL,
+                TourEndpoint.SEARCH_FESTIVAL.normalize(Map.of("numOfRows", "150", "pageNo", "2")));
+
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(0)).containsEntry("numOfRows", String.valueOf(TourEndpoint.MAX_ROWS))
+                .containsEntry("pageNo", "1");
+        // 화면에서 쓰는 150건은 그대로 전달됩니다.
+        assertThat(requests.get(1)).containsEntry("numOfRows", "150").containsEntry("pageNo", "2");
+        // 게이트웨이가 붙이는 파라미터와 인코딩된 서비스키
+        assertThat(requests.get(0)).containsEntry("serviceKey", "test+key").containsEntry("_type", "json");
+    }
+
+    @Test
+    void concurrentMissesShareOneOriginCall() throws Exception {
+        release = new CountDownLatch(1);
+        int callers = 32;
+        ExecutorService callerPool = Executors.newFixedThreadPool(callers);
+        CountDownLatch started = new CountDownLatch(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(callerPool.submit(() -> {
+                    started.countDown();
+                    return gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("numOfRows", "10"));
+                }));
+            }
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            awaitTrue(() -> requests.size() == 1, "원본 호출이 나가지 않았습니다.");
+            // 나머지 호출자들이 진행 중인 호출에 붙을 시간을 줍니다.
+            Thread.sleep(200);
+            release.countDown();
+
+            Set<String> bodies = new HashSet<>();
+            for (Future<String> result : results) {
+                bodies.add(result.get(5, TimeUnit.SECONDS));
+            }
+            assertThat(bodies).hasSize(1);
+            assertThat(requests).hasSize(1);
+        } finally {
+            callerPool.shutdownNow();
+        }
+    }
+
+    @Test
+    void staleResponseIsServedWhileOneRefreshRunsInTheBackground() throws Exception {
+        String key = OPERATION + "?numOfRows=10";
+        long fetchedAt = System.currentTimeMillis() - TourEndpoint.SEARCH_FESTIVAL.getFreshFor().plusMinutes(1).toMillis();
+        cache.put(key, new CachedResponse(body(-1), fetchedAt), Duration.ofHours(1));
+        release = new CountDownLatch(1);
+
+        // 원본이 응답하지 않는 동안에도 stale 응답이 바로 나갑니다.
+        for (int i = 0; i < 5; i++) {
+            String body = CompletableFuture.supplyAsync(
+                            () -> gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("numOfRows", "10")))
+                    .get(1, TimeUnit.SECONDS);
+            assertThat(body).isEqualTo(body(-1));
+        }
+        awaitTrue(() -> requests.size() == 1, "백그라운드 갱신이 나가지 않았습니다.");
+
+        release.countDown();
+        awaitTrue(() -> cache.get(key).map(r -> r.body().equals(body(0))).orElse(false), "갱신된 응답이 캐시되지 않았습니다.");
+        assertThat(gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("numOfRows", "10"))).isEqualTo(body(0));
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void failedRefreshKeepsServingStaleWithoutRetryingEveryRequest() throws Exception {
+        String key = OPERATION + "?numOfRows=10";
+        long fetchedAt = System.currentTimeMillis() - TourEndpoint.SEARCH_FESTIVAL.getFreshFor().plusMinutes(1).toMillis();
+        cache.put(key, new CachedResponse(body(-1), fetchedAt), Duration.ofHours(1));
+        status = 503;
+
+        assertThat(gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("numOfRows", "10"))).isEqualTo(body(-1));
+        awaitTrue(() -> responses.get() == 1, "백그라운드 갱신이 나가지 않았습니다.");
+        Thread.sleep(100);
+
+        // 갱신이 실패한 뒤 backoff(60초) 동안은 stale 요청이 와도 다시 호출하지 않습니다.
+        for (int i = 0; i < 10; i++) {
+            assertThat(gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("numOfRows", "10"))).isEqualTo(body(-1));
+        }
+        assertThat(requests).hasSize(1);
+    }
+
+    @Test
+    void parameterErrorsGoBackToTheCallerWithoutOpeningTheCircuit() {
+        overrideBody = "{\"response\":{\"header\":{\"resultCode\":\"10\",\"resultMsg\":\"INVALID_REQUEST_PARAMETER_ERROR\"}}}";
+        // 브레이커 한도(5)보다 많이 실패시킵니다.
+        for (int i = 1; i <= 10; i++) {
+            int pageNo = i;
+            assertThatThrownBy(() -> gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("pageNo", String.valueOf(pageNo))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        overrideBody = null;
+        assertThat(gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("pageNo", "11"))).isEqualTo(body(10));
+        assertThat(requests).hasSize(11);
+    }
+
+    @Test
+    void quotaErrorsOpenTheCircuit() {
+        overrideBody = "<OpenAPI_ServiceResponse><cmmMsgHeader><errMsg>SERVICE ERROR</errMsg>" +
+                "<returnAuthMsg>LIMITED_NUMBER_OF_SERVICE_REQUESTS_EXCEEDS_ERROR</returnAuthMsg>" +
+                "<returnReasonCode>22</returnReasonCode></cmmMsgHeader></OpenAPI_ServiceResponse>";
+        for (int i = 1; i <= 5; i++) {
+            int pageNo = i;
+            assertThatThrownBy(() -> gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("pageNo", String.valueOf(pageNo))))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("결과 코드 22");
+        }
+
+        // 서킷이 열려 원본까지 가지 않습니다.
+        assertThatThrownBy(() -> gateway.get(TourEndpoint.SEARCH_FESTIVAL, Map.of("pageNo", "6")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(requests).hasSize(5);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int index = requests.size();
+        requests.add(parseQuery(exchange.getRequestURI().getRawQuery()));
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String body = overrideBody;
+        byte[] payload = (body != null ? body : body(index)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+        responses.incrementAndGet();
+    }
+
+    private static String body(int index) {
+        return "{\"response\":{\"header\":{\"resultCode\":\"0000\",\"resultMsg\":\"OK\"}," +
+                "\"body\":{\"items\":{\"item\":[{\"contentid\":\"" + index + "\"}]},\"totalCount\":1}}}";
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError(message);
+            }
+            Thread.sleep(20);
+        }
+    }
+}